@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stored benchmark results which the current run is compared with.
+ * The file contains the primary score and the normalized allocation rate
+ * ({@code gc.alloc.rate.norm} of the GC profiler) of every benchmark and parameters combination.
+ */
+public class Baseline {
+    
+    private static final String ALLOCATION_RATE = "gc.alloc.rate.norm";
+    /* Allocations below this number of bytes per operation are treated as a noise */
+    private static final double ALLOCATION_NOISE = 64;
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    
+    public Map<String, Measurement> measurements = new TreeMap<>();
+    
+    public static Baseline of(Collection<RunResult> results) {
+        Baseline baseline = new Baseline();
+        for (RunResult result : results) {
+            Measurement measurement = new Measurement();
+            Result<?> primary = result.getPrimaryResult();
+            measurement.score = primary.getScore();
+            measurement.error = primary.getScoreError();
+            measurement.unit = primary.getScoreUnit();
+            measurement.higherIsBetter = result.getParams().getMode() == Mode.Throughput;
+            Result<?> allocation = result.getSecondaryResults().get(ALLOCATION_RATE);
+            measurement.allocatedBytes = allocation == null ? null : allocation.getScore();
+            baseline.measurements.put(key(result), measurement);
+        }
+        return baseline;
+    }
+    
+    public static Baseline read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), Baseline.class);
+    }
+    
+    public void write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        MAPPER.writeValue(path.toFile(), this);
+    }
+    
+    /**
+     * Returns descriptions of the benchmarks which became slower or allocate more than the baseline
+     * by more than the given tolerance (e.g. 0.1 for 10%).
+     */
+    public List<String> regressions(Baseline current, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        current.measurements.forEach((key, now) -> {
+            Measurement before = measurements.get(key);
+            if (before == null) {
+                return;
+            }
+            double change = now.higherIsBetter
+                    ? (before.score - now.score) / before.score
+                    : (now.score - before.score) / before.score;
+            if (change > tolerance) {
+                regressions.add(String.format("%s: score %.3f -> %.3f %s (%+.1f%%)",
+                        key, before.score, now.score, now.unit, change * 100));
+            }
+            if (before.allocatedBytes != null && now.allocatedBytes != null
+                    && now.allocatedBytes > before.allocatedBytes * (1 + tolerance) + ALLOCATION_NOISE) {
+                regressions.add(String.format("%s: allocation %.0f -> %.0f B/op",
+                        key, before.allocatedBytes, now.allocatedBytes));
+            }
+        });
+        return regressions;
+    }
+    
+    private static String key(RunResult result) {
+        StringBuilder key = new StringBuilder(result.getParams().getBenchmark());
+        for (String param : result.getParams().getParamsKeys()) {
+            key.append(' ').append(param).append('=').append(result.getParams().getParam(param));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Result of a single benchmark and parameters combination.
+     */
+    public static class Measurement {
+        public double score;
+        public double error;
+        public String unit;
+        public boolean higherIsBetter;
+        public Double allocatedBytes;
+    }
+}
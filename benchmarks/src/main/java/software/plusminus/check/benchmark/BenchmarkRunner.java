@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the benchmarks with the GC profiler and compares the results with a stored baseline.
+ * Accepts the usual JMH command line options, e.g. {@code java -jar benchmarks.jar ObjectCheck -f 1}.
+ * <ul>
+ *     <li>{@code -Dbaseline=path/to/baseline.json} - the baseline file. 
+ *     If the file does not exist it is created from the current run.</li>
+ *     <li>{@code -Dbaseline.update=true} - overwrites the baseline with the current run.</li>
+ *     <li>{@code -Dbaseline.tolerance=0.1} - allowed slowdown (and allocation growth) before
+ *     a benchmark is reported as a regression.</li>
+ * </ul>
+ * Exits with a non-zero code if any regression is found 
+ * or if a benchmark marked with {@link AllocationFree} allocates.
+ */
+public final class BenchmarkRunner {
+    
+    /* JMH reports tiny non-zero rates for benchmarks which do not allocate */
+    static final double ALLOCATION_FREE_LIMIT = 1;
+    private static final String ALLOCATION_RATE = "gc.alloc.rate.norm";
+
+    private BenchmarkRunner() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        Baseline current = Baseline.of(results);
+        
+        List<String> allocating = allocating(results);
+        if (!allocating.isEmpty()) {
+            System.out.println("Allocation free benchmarks which allocate:");
+            allocating.forEach(r -> System.out.println("  " + r));
+            System.exit(1);
+        }
+        
+        String baselineFile = System.getProperty("baseline");
+        if (baselineFile == null) {
+            return;
+        }
+        Path path = Paths.get(baselineFile);
+        if (Boolean.getBoolean("baseline.update") || !Files.exists(path)) {
+            current.write(path);
+            System.out.println("Baseline is written to " + path.toAbsolutePath());
+            return;
+        }
+        double tolerance = Double.parseDouble(System.getProperty("baseline.tolerance", "0.1"));
+        List<String> regressions = Baseline.read(path).regressions(current, tolerance);
+        if (regressions.isEmpty()) {
+            System.out.println("No regressions against " + path.toAbsolutePath());
+            return;
+        }
+        System.out.println("Regressions against " + path.toAbsolutePath() + ":");
+        regressions.forEach(r -> System.out.println("  " + r));
+        System.exit(1);
+    }
+    
+    private static List<String> allocating(Collection<RunResult> results) throws ClassNotFoundException {
+        List<String> allocating = new ArrayList<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            int dot = benchmark.lastIndexOf('.');
+            Class<?> type = Class.forName(benchmark.substring(0, dot));
+            boolean allocationFree = Stream.of(type.getMethods())
+                    .filter(m -> m.getName().equals(benchmark.substring(dot + 1)))
+                    .anyMatch(m -> m.isAnnotationPresent(AllocationFree.class));
+            Result<?> allocation = result.getSecondaryResults().get(ALLOCATION_RATE);
+            if (allocationFree && allocation != null && allocation.getScore() > ALLOCATION_FREE_LIMIT) {
+                allocating.add(String.format("%s: %.1f B/op", benchmark, allocation.getScore()));
+            }
+        }
+        return allocating;
+    }
+}
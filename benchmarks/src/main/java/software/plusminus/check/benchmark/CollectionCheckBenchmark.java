@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.plusminus.check.Checks;
+import software.plusminus.check.benchmark.Payloads.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@code CollectionCheck.is(Object...)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectionCheckBenchmark {
+    
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private PayloadSize size;
+    
+    private List<Item> actual;
+    private Object[] equalElements;
+    private Object[] differentElements;
+    private List<Item> shifted;
+    
+    @Setup
+    public void setUp() {
+        actual = Payloads.items(size);
+        equalElements = Payloads.items(size).toArray();
+        differentElements = Payloads.differentItems(size).toArray();
+        shifted = Payloads.shiftedItems(size);
+    }
+    
+    @Benchmark
+    public void passElements() {
+        Checks.check(actual).is(equalElements);
+    }
+    
+    @Benchmark
+    public AssertionError failElements() {
+        return Failures.expect(() -> Checks.check(actual).is(differentElements));
+    }
+    
+    @Benchmark
+    public AssertionError failShiftedElements() {
+        return Failures.expect(() -> Checks.check(shifted).is(equalElements));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.plusminus.check.AbstractCheck;
+import software.plusminus.check.Checks;
+import software.plusminus.check.json.GsonJsonEngine;
+import software.plusminus.check.json.JacksonJsonEngine;
+import software.plusminus.check.util.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the json comparison paths: {@code JsonCheck.is}, {@code JsonCheck.ignoringFieldsOrder},
+ * {@code StringCheck.is} with a json string and {@code AbstractCheck.checkJson}
+ * with each of the bundled json engines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCheckBenchmark {
+    
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private PayloadSize size;
+    
+    @Param({"jackson", "gson"})
+    private String engine;
+    
+    private String actual;
+    private String equal;
+    private String equalPretty;
+    private String reordered;
+    private String different;
+    private JsonProbe probe = new JsonProbe();
+    
+    @Setup
+    public void setUp() {
+        JsonUtils.setEngine("gson".equals(engine) ? new GsonJsonEngine() : new JacksonJsonEngine());
+        actual = JsonUtils.toJson(Payloads.order(size));
+        equal = JsonUtils.toJson(Payloads.order(size)) + " ";
+        equalPretty = JsonUtils.pretty(JsonUtils.toJson(Payloads.order(size)));
+        reordered = JsonUtils.toJson(reverse(JsonUtils.fromJson(actual, Map.class)));
+        different = JsonUtils.toJson(Payloads.differentOrder(size));
+    }
+    
+    @TearDown
+    public void tearDown() {
+        JsonUtils.setEngine(null);
+    }
+    
+    @Benchmark
+    public void passJsonCheck() {
+        Checks.check(actual).isJson().is(equalPretty);
+    }
+    
+    @Benchmark
+    public AssertionError failJsonCheck() {
+        return Failures.expect(() -> Checks.check(actual).isJson().is(different));
+    }
+    
+    @Benchmark
+    public void passIgnoringFieldsOrder() {
+        Checks.check(actual).isJson().ignoringFieldsOrder().is(reordered);
+    }
+    
+    @Benchmark
+    public AssertionError failIgnoringFieldsOrder() {
+        return Failures.expect(() -> Checks.check(actual).isJson().ignoringFieldsOrder().is(different));
+    }
+    
+    @Benchmark
+    public void passStringCheck() {
+        Checks.check(actual).is(equalPretty);
+    }
+    
+    @Benchmark
+    public void passCheckJson() {
+        probe.checkJson(equal, actual);
+    }
+    
+    @Benchmark
+    public AssertionError failCheckJson() {
+        return Failures.expect(() -> probe.checkJson(different, actual));
+    }
+    
+    private static Map<?, ?> reverse(Map<?, ?> json) {
+        List<Map.Entry<?, ?>> entries = new ArrayList<>(json.entrySet());
+        Collections.reverse(entries);
+        Map<Object, Object> reversed = new LinkedHashMap<>();
+        entries.forEach(e -> reversed.put(e.getKey(), 
+                e.getValue() instanceof Map ? reverse((Map<?, ?>) e.getValue()) : e.getValue()));
+        return reversed;
+    }
+    
+    /**
+     * Exposes the protected {@link AbstractCheck#checkJson(String, String)}.
+     */
+    private static class JsonProbe extends AbstractCheck {
+        
+        @Override
+        public void checkJson(String expected, String actual) {
+            super.checkJson(expected, actual);
+        }
+    }
+}
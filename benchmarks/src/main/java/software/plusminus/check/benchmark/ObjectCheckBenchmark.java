@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.plusminus.check.Checks;
+import software.plusminus.check.benchmark.Payloads.Order;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@code ObjectCheck.is(T)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectCheckBenchmark {
+    
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private PayloadSize size;
+    
+    private Order actual;
+    private Order equal;
+    private Order different;
+    
+    @Setup
+    public void setUp() {
+        actual = Payloads.order(size);
+        equal = Payloads.order(size);
+        different = Payloads.differentOrder(size);
+    }
+    
+    @Benchmark
+    public void pass() {
+        Checks.check(actual).is(equal);
+    }
+    
+    @Benchmark
+    public AssertionError fail() {
+        return Failures.expect(() -> Checks.check(actual).is(different));
+    }
+}
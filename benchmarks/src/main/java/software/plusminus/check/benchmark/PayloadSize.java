@@ -0,0 +1,38 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+/**
+ * Payload sizes used by the benchmarks.
+ * SMALL is a typical unit test object, MEDIUM is a typical REST response (tens of kilobytes)
+ * and LARGE is a multi-megabyte API payload.
+ */
+public enum PayloadSize {
+    
+    SMALL(3),
+    MEDIUM(200),
+    LARGE(25_000);
+    
+    private final int elements;
+
+    PayloadSize(int elements) {
+        this.elements = elements;
+    }
+
+    public int elements() {
+        return elements;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic payload factory for the benchmarks.
+ * Every call creates new instances so that identity short-cuts of the checkers are never taken.
+ */
+public final class Payloads {
+    
+    private static final Instant CREATED = Instant.parse("2021-03-01T10:15:30Z");
+
+    private Payloads() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+    
+    public static Order order(PayloadSize size) {
+        Order order = new Order();
+        order.id = 42;
+        order.customer = "customer-42";
+        order.created = CREATED;
+        order.attributes = new LinkedHashMap<>();
+        order.attributes.put("channel", "web");
+        order.attributes.put("priority", "normal");
+        order.items = items(size);
+        return order;
+    }
+    
+    /**
+     * Same as {@link #order(PayloadSize)} but with the last item changed,
+     * so that the difference is found as late as possible.
+     */
+    public static Order differentOrder(PayloadSize size) {
+        Order order = order(size);
+        order.items.get(order.items.size() - 1).quantity++;
+        return order;
+    }
+    
+    public static List<Item> items(PayloadSize size) {
+        List<Item> items = new ArrayList<>(size.elements());
+        for (int i = 0; i < size.elements(); i++) {
+            items.add(item(i));
+        }
+        return items;
+    }
+    
+    public static List<Item> differentItems(PayloadSize size) {
+        List<Item> items = items(size);
+        items.get(items.size() - 1).quantity++;
+        return items;
+    }
+    
+    /**
+     * Items with one element inserted near the start and one removed near the end,
+     * so all the elements between them are shifted.
+     */
+    public static List<Item> shiftedItems(PayloadSize size) {
+        List<Item> items = items(size);
+        items.remove(items.size() - 1 - items.size() / 10);
+        items.add(items.size() / 10, item(-1));
+        return items;
+    }
+    
+    public static Map<String, Item> itemsMap(PayloadSize size) {
+        Map<String, Item> map = new LinkedHashMap<>();
+        for (int i = 0; i < size.elements(); i++) {
+            map.put("item-" + i, item(i));
+        }
+        return map;
+    }
+    
+    public static Map<String, Item> differentItemsMap(PayloadSize size) {
+        Map<String, Item> map = itemsMap(size);
+        map.get("item-" + (size.elements() - 1)).quantity++;
+        return map;
+    }
+    
+    /**
+     * Creates a tree where every child references its parent, 
+     * so the graph has cycles and is serialized with the JSOG format.
+     */
+    public static Node cyclicTree(PayloadSize size) {
+        Node root = new Node();
+        root.name = "node-0";
+        List<Node> level = new ArrayList<>();
+        level.add(root);
+        int created = 1;
+        while (created < size.elements()) {
+            List<Node> nextLevel = new ArrayList<>();
+            for (Node parent : level) {
+                for (int i = 0; i < 8 && created < size.elements(); i++) {
+                    Node child = new Node();
+                    child.name = "node-" + created++;
+                    child.parent = parent;
+                    parent.children.add(child);
+                    nextLevel.add(child);
+                }
+            }
+            level = nextLevel;
+        }
+        return root;
+    }
+    
+    public static Node differentCyclicTree(PayloadSize size) {
+        Node root = cyclicTree(size);
+        Node last = root;
+        while (!last.children.isEmpty()) {
+            last = last.children.get(last.children.size() - 1);
+        }
+        last.name = last.name + "-changed";
+        return root;
+    }
+    
+    private static Item item(int index) {
+        Item item = new Item();
+        item.sku = 100_000 + index;
+        item.name = "Item number " + index;
+        item.price = 9.99 + index;
+        item.quantity = 1 + index % 5;
+        return item;
+    }
+
+    /**
+     * Order DTO.
+     */
+    public static class Order {
+        public long id;
+        public String customer;
+        public Instant created;
+        public Map<String, String> attributes;
+        public List<Item> items;
+    }
+
+    /**
+     * Order item DTO.
+     */
+    public static class Item {
+        public int sku;
+        public String name;
+        public double price;
+        public int quantity;
+    }
+
+    /**
+     * Tree node with a back reference to its parent.
+     */
+    public static class Node {
+        public String name;
+        public Node parent;
+        public List<Node> children = new ArrayList<>();
+    }
+}
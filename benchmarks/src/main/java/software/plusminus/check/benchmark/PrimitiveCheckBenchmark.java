@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.plusminus.check.Checks;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the passing checks of primitives, booleans and enums, which must not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveCheckBenchmark {
+    
+    private int intValue = 42;
+    private long longValue = 42L;
+    private double doubleValue = 0.1 + 0.2;
+    private boolean booleanValue = true;
+    private TimeUnit enumValue = TimeUnit.SECONDS;
+    
+    @Benchmark
+    @AllocationFree
+    public void checkInt() {
+        Checks.check(intValue).is(42);
+    }
+    
+    @Benchmark
+    @AllocationFree
+    public void checkLong() {
+        Checks.check(longValue).is(42L);
+    }
+    
+    @Benchmark
+    @AllocationFree
+    public void checkDouble() {
+        Checks.check(doubleValue).is(0.30000000000000004);
+    }
+    
+    @Benchmark
+    @AllocationFree
+    public void checkBoolean() {
+        Checks.check(booleanValue).isTrue();
+    }
+    
+    @Benchmark
+    @AllocationFree
+    public void checkEnum() {
+        Checks.check(enumValue).is(TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.plusminus.check.Checks;
+import software.plusminus.check.benchmark.Payloads.Order;
+import software.plusminus.check.util.JsonUtils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks checks against expectations stored in resource files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceBenchmark {
+    
+    @Param({"SMALL", "MEDIUM"})
+    private PayloadSize size;
+    
+    private String resource;
+    private Order actual;
+    private Order different;
+    private String actualJson;
+    
+    @Setup
+    public void setUp() {
+        resource = "benchmark/order-" + size.name().toLowerCase(Locale.ROOT) + ".json";
+        actual = Payloads.order(size);
+        different = Payloads.differentOrder(size);
+        actualJson = JsonUtils.toJson(Payloads.order(size));
+    }
+    
+    @Benchmark
+    public void passObject() {
+        Checks.check(actual).is(resource);
+    }
+    
+    @Benchmark
+    public AssertionError failObject() {
+        return Failures.expect(() -> Checks.check(different).is(resource));
+    }
+    
+    @Benchmark
+    public void passString() {
+        Checks.check(actualJson).is(resource);
+    }
+    
+    @Benchmark
+    public void passJsonCheck() {
+        Checks.check(actualJson).isJson().is(resource);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import java.lang.reflect.Array;
+
+import static org.junit.Assert.assertSame;
+
+/**
+ * Base class for primitive array checkers.
+ * Arrays up to 100 elements are shown completely on failure, bigger ones only around the first difference.
+ * Failure messages are built from the primitive values directly, without boxing them.
+ * A null actual array is reported as a failure, the same way as in {@link ObjectCheck}.
+ *
+ * @param <A> the primitive array type
+ */
+public abstract class AbstractArrayCheck<A> extends AbstractCheck {
+    
+    private static final int FULL_FAILURE_SIZE = 100;
+    private static final int FAILURE_WINDOW = 2;
+    
+    public void hasSize(int expected) {
+        if (actual() == null) {
+            fail("size is " + expected, "is null");
+        } else if (length() != expected) {
+            fail("size is " + expected, "size is " + length());
+        }
+    }
+    
+    public void isEmpty() {
+        if (actual() == null) {
+            fail("to be empty", "is null");
+        } else if (length() != 0) {
+            fail("to be empty", "contains " + length() + " elements");
+        }
+    }
+    
+    public void isSame(A expected) {
+        if (expected != actual()) {
+            verify(() -> assertSame(expected, actual()));
+        }
+    }
+    
+    public void isNull() {
+        if (actual() != null) {
+            fail("is null", "size is " + length());
+        }
+    }
+    
+    public void isNotNull() {
+        if (actual() == null) {
+            fail("is not null", "is null");
+        }
+    }
+    
+    protected abstract A actual();
+    
+    /**
+     * Returns true if both arrays are not null and have to be compared element by element.
+     * Reports the failure if only one of them is null.
+     */
+    protected boolean compared(A expected) {
+        A actual = actual();
+        if (expected == actual) {
+            return false;
+        }
+        if (actual == null) {
+            fail("is not null", "is null");
+            return false;
+        }
+        if (expected == null) {
+            fail("is null", "size is " + length());
+            return false;
+        }
+        return true;
+    }
+    
+    private int length() {
+        return Array.getLength(actual());
+    }
+    
+    protected void failAt(int index, int expectedLength, ElementWriter expected, ElementWriter actual) {
+        int actualLength = length();
+        if (expectedLength <= FULL_FAILURE_SIZE && actualLength <= FULL_FAILURE_SIZE) {
+            fail(write(new StringBuilder(), expected, 0, expectedLength), 
+                    write(new StringBuilder(), actual, 0, actualLength));
+        } else if (expectedLength != actualLength) {
+            fail("size is " + expectedLength, "size is " + actualLength);
+        } else {
+            int from = Math.max(0, index - FAILURE_WINDOW);
+            int to = Math.min(expectedLength, index + FAILURE_WINDOW + 1);
+            String header = "at /" + index + (from > 0 ? " (showing elements from " + from + ")" : "") + "\n";
+            fail(write(new StringBuilder(header), expected, from, to),
+                    write(new StringBuilder(header), actual, from, to));
+        }
+    }
+    
+    private String write(StringBuilder builder, ElementWriter elements, int from, int to) {
+        builder.append('[');
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                builder.append(", ");
+            }
+            elements.write(builder, i);
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Appends the array element to the failure message.
+     */
+    @FunctionalInterface
+    protected interface ElementWriter {
+        void write(StringBuilder builder, int index);
+    }
+}
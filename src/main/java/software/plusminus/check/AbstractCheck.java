@@ -16,17 +16,45 @@
 package software.plusminus.check;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.ComparisonFailure;
+import software.plusminus.check.diff.JsonDiff;
+import software.plusminus.check.exception.JsonDiffFailure;
+import software.plusminus.check.exception.JsonException;
+import software.plusminus.check.metrics.CheckEvent;
+import software.plusminus.check.metrics.CheckPhase;
+import software.plusminus.check.metrics.Instrumentation;
+import software.plusminus.check.util.FixtureCache;
+import software.plusminus.check.util.JsonComparator;
+import software.plusminus.check.util.JsonMismatch;
 import software.plusminus.check.util.JsonUtils;
+import software.plusminus.check.util.ObjectComparator;
+import software.plusminus.check.util.SerializedForms;
+import software.plusminus.check.util.Snapshots;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import static org.junit.Assert.assertEquals;
 
 /**
  * Base class for all checkers.
+ * A checker keeps the state of a single check and must not be shared between threads,
+ * while {@link Checks} and the utilities behind the checkers are safe for parallel test execution.
  *
  * @author Taras Shpek
  */
 public abstract class AbstractCheck {
     
+    /* Documents up to this size are shown completely on failure, bigger ones only around the difference */
+    private static final int FULL_JSON_FAILURE_LIMIT = 64 * 1024;
+    
+    /* created on the first serialization and shared with the delegated checks */
+    private SerializedForms forms;
+    /* resource expectation and the actual value of the running check, set only in the snapshots record mode */
+    private String snapshot;
+    private String snapshotActual;
+    
     @SuppressFBWarnings({ "EQ_UNUSUAL", "HE_EQUALS_USE_HASHCODE"})
     @SuppressWarnings({ "checkstyle:EqualsHashCode", "PMD.OverrideBothEqualsAndHashcode" })
     @Override
@@ -36,13 +64,67 @@ public abstract class AbstractCheck {
     }
     
     protected void checkJson(String expected, String actual) {
+        CheckEvent event = CheckEvent.beginIfEnabled();
         if (expected.equals(actual)) {
+            commit(event, expected, actual, CheckEvent.PASSED);
+            return;
+        }
+        JsonMismatch mismatch;
+        boolean lenient = false;
+        long start = Instrumentation.start();
+        try {
+            mismatch = JsonUtils.compare(expected, actual).orElse(null);
+        } catch (JsonException e) {
+            // not a strict json, let the lenient pretty printer decide
+            mismatch = null;
+            lenient = true;
+        } finally {
+            Instrumentation.end(CheckPhase.COMPARE, start, expected.length() + actual.length());
+        }
+        if (lenient) {
+            String expectedPretty = lenientPretty(expected);
+            String actualPretty = lenientPretty(actual);
+            commit(event, expected, actual, CheckEvent.LENIENT);
+            if (!expectedPretty.equals(actualPretty)) {
+                report(() -> failure(expectedPretty, actualPretty));
+            }
+            return;
+        }
+        if (mismatch == null) {
+            commit(event, expected, actual, CheckEvent.PASSED);
             return;
         }
-        String expectedPretty = JsonUtils.pretty(expected); 
+        // the strict comparison is only a shortcut, the normalized (pretty) forms decide at any size
+        String expectedPretty = JsonUtils.pretty(expected);
         String actualPretty = JsonUtils.pretty(actual);
-        if (!expectedPretty.equals(actualPretty)) {
-            fail(expectedPretty, actualPretty);
+        boolean failed = !expectedPretty.equals(actualPretty);
+        // committed before the failure is thrown
+        commit(event, expected, actual, failed ? CheckEvent.FAILED : CheckEvent.PASSED);
+        if (failed) {
+            report(() -> jsonFailure(expectedPretty, actualPretty));
+        }
+    }
+    
+    /* documents which the json engine can't parse are compared as they are */
+    private static String lenientPretty(String json) {
+        try {
+            return JsonUtils.pretty(json);
+        } catch (JsonException e) {
+            return json;
+        }
+    }
+    
+    private void commit(CheckEvent event, String expected, String actual, String outcome) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.checker = getClass();
+            event.expectedChars = expected.length();
+            event.actualChars = actual.length();
+            event.outcome = outcome;
+            event.commit();
         }
     }
     
@@ -50,6 +132,162 @@ public abstract class AbstractCheck {
         if (expected.equals(actual)) {
             throw new IllegalArgumentException("Expected and actual strings should not be equal");
         }
-        assertEquals(expected, actual);
+        report(() -> failure(expected, actual));
+    }
+    
+    protected void checkEquals(Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            verify(() -> assertEquals(expected, actual));
+        }
+    }
+
+    /**
+     * Runs the JUnit assertion now and throws its failure or, inside of {@link Checks#batch(Runnable)}, records it.
+     */
+    protected void verify(Runnable assertion) {
+        try {
+            assertion.run();
+        } catch (AssertionError e) {
+            report(() -> e);
+        }
+    }
+
+    /**
+     * Runs the check of the actual value against the expectation which may be a resource.
+     * In the record mode of {@link Snapshots} a failure (or a missing resource) records the actual value instead.
+     *
+     * @param actual the actual value as it is recorded, created only in the record mode
+     */
+    protected void checkSnapshot(String expected, Supplier<String> actual, Runnable check) {
+        if (!Snapshots.isRecording() || !Snapshots.isSnapshot(expected)) {
+            check.run();
+            return;
+        }
+        String actualText = actual.get();
+        if (FixtureCache.get(expected) == null) {
+            Snapshots.record(expected, actualText);
+            return;
+        }
+        snapshot = expected;
+        snapshotActual = actualText;
+        try {
+            check.run();
+        } catch (AssertionError e) {
+            Snapshots.record(expected, actualText);
+        } finally {
+            snapshot = null;
+            snapshotActual = null;
+        }
+    }
+
+    /**
+     * Throws the failure or, inside of {@link Checks#batch(Runnable)}, records it and returns.
+     * The check must have already failed, only the failure is created lazily,
+     * so expensive rendering is deferred to the end of the batch.
+     *
+     * @param failure creates the failure
+     */
+    protected void report(Supplier<? extends AssertionError> failure) {
+        if (snapshot != null) {
+            if (failure.get() != null) {
+                Snapshots.record(snapshot, snapshotActual);
+            }
+            return;
+        }
+        Batch batch = Batch.current();
+        if (batch != null) {
+            batch.add(failure);
+            return;
+        }
+        long start = Instrumentation.start();
+        AssertionError error = failure.get();
+        Instrumentation.end(CheckPhase.RENDER_FAILURE, start, 0);
+        if (error != null) {
+            throw error;
+        }
+    }
+    
+    /**
+     * Memoized {@link software.plusminus.check.util.CheckUtils#toString(Object)}.
+     */
+    protected String stringOf(Object object) {
+        return forms().toString(object);
+    }
+
+    /**
+     * Memoized {@link software.plusminus.check.util.CheckUtils#toJson(Object)}.
+     */
+    protected String jsonOf(Object object) {
+        return forms().toJson(object);
+    }
+
+    /**
+     * Json array of the memoized elements forms.
+     */
+    protected String jsonOf(List<?> elements) {
+        return forms().toJsonArray(elements);
+    }
+
+    /**
+     * Compares elements of collections: field by field and, if they differ, by their json forms.
+     */
+    protected boolean sameElement(Object expected, Object actual) {
+        if (expected == actual) {
+            return true;
+        }
+        if (expected == null || actual == null) {
+            return false;
+        }
+        if (expected.getClass() == actual.getClass() && ObjectComparator.equal(expected, actual)) {
+            return true;
+        }
+        return jsonOf(expected).equals(jsonOf(actual));
+    }
+
+    /**
+     * Shares the memoized serialized forms with the check which this one delegates to.
+     */
+    protected <C extends AbstractCheck> C delegate(C check) {
+        ((AbstractCheck) check).forms = forms();
+        return check;
+    }
+    
+    protected AssertionError failure(String expected, String actual) {
+        return new ComparisonFailure("", expected, actual);
+    }
+    
+    private SerializedForms forms() {
+        if (forms == null) {
+            forms = new SerializedForms();
+        }
+        return forms;
+    }
+    
+    /* renders the failure of the different pretty (normalized) jsons */
+    private AssertionError jsonFailure(String expectedPretty, String actualPretty) {
+        String expectedText = expectedPretty;
+        String actualText = actualPretty;
+        if (expectedPretty.length() + actualPretty.length() > FULL_JSON_FAILURE_LIMIT) {
+            JsonMismatch mismatch = JsonUtils.compare(expectedPretty, actualPretty).orElse(null);
+            if (mismatch != null) {
+                String expectedRegion = JsonComparator.expectedRegion(expectedPretty, mismatch);
+                String actualRegion = JsonComparator.actualRegion(actualPretty, mismatch);
+                if (!expectedRegion.equals(actualRegion)) {
+                    expectedText = expectedRegion;
+                    actualText = actualRegion;
+                }
+            }
+        }
+        JsonDiff diff;
+        try {
+            diff = JsonDiff.of(expectedPretty, actualPretty);
+        } catch (JsonException e) {
+            return failure(expectedText, actualText);
+        }
+        if (diff.isEmpty()) {
+            // only the fields order differs
+            return failure(expectedText, actualText);
+        }
+        return new JsonDiffFailure(diff, expectedText, actualText);
+    }
     }
-}
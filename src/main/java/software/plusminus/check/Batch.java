@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Scope of {@link Checks#batch(Runnable)} which collects the failures of the checks made by the current thread.
+ * The checks decide whether they failed immediately, only the failures are kept as closures
+ * and rendered (pretty printed, diffed) when the scope is closed. 
+ * The closures share the memoized forms of their checks, so they are rendered sequentially.
+ */
+final class Batch {
+    
+    private static final ThreadLocal<Batch> CURRENT = new ThreadLocal<>();
+    
+    private final List<Failure> failures = new ArrayList<>();
+    
+    private Batch() {
+    }
+    
+    static Batch current() {
+        return CURRENT.get();
+    }
+    
+    static void run(Runnable checks) {
+        Batch previous = CURRENT.get();
+        Batch batch = new Batch();
+        CURRENT.set(batch);
+        try {
+            checks.run();
+        } catch (AssertionError e) {
+            // checks which can't be continued stop the batch
+            batch.addError(e);
+        } catch (RuntimeException | Error e) {
+            // an unexpected exception stops the batch, the failures collected before are not lost
+            batch.render().forEach(e::addSuppressed);
+            throw e;
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+        if (previous == null) {
+            batch.complete();
+        } else {
+            previous.failures.addAll(batch.failures);
+        }
+    }
+    
+    /**
+     * Runs the checks so that their failures are thrown immediately even inside of a batch.
+     */
+    static void outside(Runnable checks) {
+        Batch previous = CURRENT.get();
+        if (previous == null) {
+            checks.run();
+            return;
+        }
+        CURRENT.remove();
+        try {
+            checks.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+    
+    void add(Supplier<? extends AssertionError> failure) {
+        failures.add(new Failure(failure, new Throwable()));
+    }
+    
+    void addError(AssertionError error) {
+        failures.add(new Failure(() -> error, null));
+    }
+    
+    private void complete() {
+        List<AssertionError> errors = render();
+        if (errors.isEmpty()) {
+            return;
+        }
+        if (errors.size() == 1) {
+            throw errors.get(0);
+        }
+        StringBuilder message = new StringBuilder().append(errors.size()).append(" checks failed");
+        for (int i = 0; i < errors.size(); i++) {
+            message.append("\n\n").append(i + 1).append(") ").append(errors.get(i).getMessage());
+        }
+        AssertionError aggregated = new AssertionError(message.toString());
+        errors.forEach(aggregated::addSuppressed);
+        throw aggregated;
+    }
+
+    private List<AssertionError> render() {
+        return failures.stream()
+                .map(Failure::render)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Deferred failure with the stack trace of the check which recorded it.
+     */
+    private static final class Failure {
+        
+        private final Supplier<? extends AssertionError> error;
+        private final Throwable location;
+
+        private Failure(Supplier<? extends AssertionError> error, Throwable location) {
+            this.error = error;
+            this.location = location;
+        }
+        
+        private AssertionError render() {
+            AssertionError rendered = error.get();
+            if (rendered != null && location != null) {
+                rendered.setStackTrace(location.getStackTrace());
+            }
+            return rendered;
+        }
+    }
+}
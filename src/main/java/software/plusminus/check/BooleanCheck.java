@@ -17,8 +17,6 @@ package software.plusminus.check;
 
 import lombok.AllArgsConstructor;
 
-import static org.junit.Assert.assertEquals;
-
 /**
  * Boolean primitive checker.
  *
@@ -31,14 +29,16 @@ public class BooleanCheck extends AbstractCheck {
     private boolean actual;
     
     public void isTrue() {
-        assertEquals(true, actual);
+        is(true);
     }
     
     public void isFalse() {
-        assertEquals(false, actual);
+        is(false);
     }
 
     public void is(boolean expected) {
-        assertEquals(expected, actual);
+        if (expected != actual) {
+            checkEquals(expected, actual);
+        }
     }
 }
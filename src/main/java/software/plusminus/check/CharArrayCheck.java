@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Primitive char array checker. Compares the arrays with {@link Arrays#mismatch(char[], char[])}.
+ */
+@AllArgsConstructor
+public class CharArrayCheck extends AbstractArrayCheck<char[]> {
+    
+    private char[] actual;
+
+    public void is(char... expected) {
+        if (!compared(expected)) {
+            return;
+        }
+        int index = Arrays.mismatch(expected, actual);
+        if (index >= 0) {
+            failAt(index, expected.length, (builder, i) -> builder.append(expected[i]),
+                    (builder, i) -> builder.append(actual[i]));
+        }
+    }
+
+    public void is(String expected) {
+        is(expected == null ? null : expected.toCharArray());
+    }
+
+    @Override
+    protected char[] actual() {
+        return actual;
+    }
+}
@@ -17,11 +17,18 @@ package software.plusminus.check;
 
 import lombok.experimental.UtilityClass;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.temporal.Temporal;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 import javax.annotation.CheckReturnValue;
 
 /**
@@ -75,6 +82,26 @@ public class Checks {
         return new OptionalCheck<>(actual);
     }
 
+    public IntArrayCheck check(int[] actual) {
+        return new IntArrayCheck(actual);
+    }
+    
+    public LongArrayCheck check(long[] actual) {
+        return new LongArrayCheck(actual);
+    }
+    
+    public DoubleArrayCheck check(double[] actual) {
+        return new DoubleArrayCheck(actual);
+    }
+    
+    public FloatArrayCheck check(float[] actual) {
+        return new FloatArrayCheck(actual);
+    }
+    
+    public CharArrayCheck check(char[] actual) {
+        return new CharArrayCheck(actual);
+    }
+
     public <T> CollectionCheck<T> check(T[] actual) {
         return new CollectionCheck<>(Arrays.asList(actual));
     }
@@ -86,5 +113,68 @@ public class Checks {
     public <K, V> MapCheck<K, V> check(Map<K, V> actual) {
         return new MapCheck<>(actual);
     }
+
+    /**
+     * Checks the elements of the stream as they come without collecting them. The stream is closed after the check.
+     */
+    public <T> IteratorCheck<T> check(Stream<T> actual) {
+        return new IteratorCheck<>(actual);
+    }
+    
+    public <T> IteratorCheck<T> check(Iterator<T> actual) {
+        return new IteratorCheck<>(actual);
+    }
+    
+    public <T> IteratorCheck<T> check(Spliterator<T> actual) {
+        return new IteratorCheck<>(actual);
+    }
+
+    /**
+     * Checks the json file reading it incrementally, so it can be of any size.
+     */
+    public JsonStreamCheck checkJson(Path actual) {
+        return new JsonStreamCheck(actual);
+    }
+
+    /**
+     * Checks the json stream reading it incrementally. The stream is not closed.
+     */
+    public JsonStreamCheck checkJson(InputStream actual) {
+        return new JsonStreamCheck(actual);
+    }
+
+    /**
+     * Checks the json in the buffer (e.g. a memory-mapped file) from its position to its limit.
+     * The position of the buffer is not changed.
+     */
+    public JsonStreamCheck checkJson(ByteBuffer actual) {
+        return new JsonStreamCheck(actual);
+    }
+
+    /**
+     * Runs the checks without stopping at the first failure.
+     * Failures of all checkers made by the current thread inside of the batch are collected,
+     * rendered when the batch is completed and thrown as a single error
+     * (the failures are suppressed by it). A check which can't be continued stops the batch.
+     */
+    public void batch(Runnable checks) {
+        Batch.run(checks);
+    }
+
+    /**
+     * Retries the checks until they pass and reports the last failure if the time is out:
+     * {@code eventually(Duration.ofSeconds(5), () -> check(order.getStatus()).is(Status.SHIPPED))}.
+     */
+    public void eventually(Duration timeout, Runnable checks) {
+        eventually(timeout).until(checks);
+    }
+
+    /**
+     * Returns the configurable waiting for checks, 
+     * e.g. {@code eventually(Duration.ofSeconds(5)).on(signal).until(() -> ...)}.
+     */
+    public Eventually eventually(Duration timeout) {
+        return new Eventually(timeout);
+    }
     
 }
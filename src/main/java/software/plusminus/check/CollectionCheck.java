@@ -15,23 +15,45 @@
  */
 package software.plusminus.check;
 
+import software.plusminus.check.diff.ListDiff;
+import software.plusminus.check.diff.ListDiffOperation;
+import software.plusminus.check.exception.CollectionDiffFailure;
 import software.plusminus.check.util.CheckUtils;
-import software.plusminus.util.ResourceUtils;
+import software.plusminus.check.util.FixtureCache;
+import software.plusminus.check.util.JsonUtils;
+import software.plusminus.check.util.ObjectComparator;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Collection (including implementations of List, Set etc) checker. 
- * Converts Collection to string (in Json or Jsog formats) before comparing.
+ * Compares elements one by one, converting them to string (in Json or Jsog formats) only if they are different.
+ * Failures of big collections list the inserted, removed and changed elements (see {@link ListDiff}).
  *
  * @author Taras Shpek
  */
 public class CollectionCheck<T> extends AbstractCheck {
     
+    /* Collections up to this size are shown completely on failure, bigger ones only around the difference */
+    private static final int FULL_FAILURE_SIZE = 100;
+    private static final int FAILURE_WINDOW = 2;
+    /* the element diff of big collections is computed up to this number of inserted and removed elements */
+    private static final int MAX_DIFF_EDITS = 200;
+    private static final int MAX_DIFF_OPERATIONS = 20;
+    private static final int PREVIEW_LIMIT = 100;
+    
     private Collection<T> actual;
+    /* json forms of the actual elements with their number, built on the first contains* call */
+    private Map<String, Integer> fingerprints;
 
     public CollectionCheck(Collection<T> actual) {
         this.actual = actual;
@@ -45,12 +67,68 @@ public class CollectionCheck<T> extends AbstractCheck {
         }
     }
     
+    /**
+     * Checks that the collection contains an element equal to the expected one or with the same json form,
+     * so {@code "1"} and {@code 1} are different elements.
+     * The json forms of the actual elements are indexed once per checker, so following calls take O(1).
+     */
     public void contains(T expected) {
-        if (!actual.contains(expected)) {
+        if (!containsEqual(expected) && !fingerprints().containsKey(fingerprint(expected))) {
             fail("should contain " + expected, "does not contain in " + actual);
         }
     }
 
+    @SafeVarargs
+    public final void containsAll(T... expected) {
+        List<String> missing = new ArrayList<>();
+        for (T element : expected) {
+            if (!containsEqual(element)) {
+                String fingerprint = fingerprint(element);
+                if (!fingerprints().containsKey(fingerprint)) {
+                    missing.add(fingerprint);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            fail("contains " + missing, "does not contain " + missing);
+        }
+    }
+
+    /**
+     * Checks that the collection consists of the same elements (including duplicates) in any order.
+     * The elements are matched by their json forms and, if these differ, by {@code equals()}.
+     */
+    @SafeVarargs
+    public final void containsExactlyInAnyOrder(T... expected) {
+        Map<String, Integer> unmatched = new HashMap<>(fingerprints());
+        List<String> missing = new ArrayList<>();
+        for (T element : expected) {
+            String fingerprint = fingerprint(element);
+            if (!unmatched.containsKey(fingerprint)) {
+                fingerprint = equalFingerprint(element, unmatched);
+            }
+            if (fingerprint == null) {
+                missing.add(fingerprint(element));
+            } else {
+                unmatched.computeIfPresent(fingerprint, (f, count) -> count == 1 ? null : count - 1);
+            }
+        }
+        if (missing.isEmpty() && unmatched.isEmpty()) {
+            return;
+        }
+        List<String> unexpected = new ArrayList<>();
+        for (T element : actual) {
+            String fingerprint = fingerprint(element);
+            Integer count = unmatched.get(fingerprint);
+            if (count != null) {
+                unexpected.add(fingerprint);
+                unmatched.put(fingerprint, count - 1);
+                unmatched.remove(fingerprint, 0);
+            }
+        }
+        fail("also contains " + missing, "also contains " + unexpected);
+    }
+
     public void hasSize(int expected) {
         if (actual.size() != expected) {
             fail("size is " + expected, "size is " + actual.size());
@@ -78,19 +156,150 @@ public class CollectionCheck<T> extends AbstractCheck {
     private boolean isEqualToFirstElement(Object expected) {
         T singleElement = actual.iterator().next();
         return singleElement != null 
-                && CheckUtils.toString(singleElement).equals(CheckUtils.toString(expected));
+                && stringOf(singleElement).equals(stringOf(expected));
     }
     
     private void checkCollection(Collection<T> expected) {
-        new ObjectCheck<>(actual).is(expected);
+        delegate(new ObjectCheck<>(actual)).is(expected);
     }
 
     private void checkString(String expected) {
-        new ObjectCheck<>(actual).is(expected);
+        delegate(new ObjectCheck<>(actual)).is(expected);
     }
 
+    /* Compares element by element and stops at the first difference without serializing the whole collections */
     private void checkElements(Object... expected) {
-        checkJson(CheckUtils.toJson(expectedList(expected)), CheckUtils.toJson(actual));
+        List<?> expectedElements = expectedList(expected);
+        boolean small = expectedElements.size() <= FULL_FAILURE_SIZE && actual.size() <= FULL_FAILURE_SIZE;
+        if (expectedElements.size() != actual.size()) {
+            if (small) {
+                checkJson(jsonOf(expectedElements), jsonOf(new ArrayList<>(actual)));
+            } else {
+                String expectedSize = "size is " + expectedElements.size();
+                String actualSize = "size is " + actual.size();
+                report(() -> diffFailure(expectedElements, expectedSize, actualSize));
+            }
+            return;
+        }
+        int index = firstDifference(expectedElements);
+        if (index < 0) {
+            return;
+        }
+        if (small) {
+            checkJson(jsonOf(expectedElements), jsonOf(new ArrayList<>(actual)));
+        } else {
+            failAt(index, expectedElements);
+        }
+    }
+    
+    private int firstDifference(List<?> expected) {
+        Iterator<T> actualIterator = actual.iterator();
+        for (int i = 0; i < expected.size(); i++) {
+            if (!sameElement(expected.get(i), actualIterator.next())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void failAt(int index, List<?> expected) {
+        int from = Math.max(0, index - FAILURE_WINDOW);
+        int to = Math.min(expected.size(), index + FAILURE_WINDOW + 1);
+        String header = "at /" + index + (from > 0 ? " (showing elements from " + from + ")" : "") + "\n";
+        List<T> actualWindow = actual.stream()
+                .skip(from)
+                .limit(to - from)
+                .collect(Collectors.toList());
+        List<?> expectedWindow = expected.subList(from, to);
+        report(() -> diffFailure(expected, header + JsonUtils.pretty(jsonOf(expectedWindow)),
+                header + JsonUtils.pretty(jsonOf(actualWindow))));
+    }
+    
+    /* lists the inserted, removed and changed elements if there are not too many of them */
+    private AssertionError diffFailure(List<?> expected, String expectedText, String actualText) {
+        List<?> actualElements = actual instanceof List && actual instanceof RandomAccess 
+                ? (List<?>) actual 
+                : new ArrayList<>(actual);
+        ListDiff diff = ListDiff.of(expected.size(), actualElements.size(), 
+                new HashMatcher(expected, actualElements), MAX_DIFF_EDITS);
+        if (diff == null || diff.isEmpty()) {
+            return failure(expectedText, actualText);
+        }
+        StringBuilder message = new StringBuilder("collection differs:");
+        List<ListDiffOperation> operations = diff.getOperations();
+        for (int i = 0; i < operations.size() && i < MAX_DIFF_OPERATIONS; i++) {
+            ListDiffOperation operation = operations.get(i);
+            Object expectedElement = operation.getKind() == ListDiffOperation.Kind.INSERTED
+                    ? null 
+                    : expected.get(operation.getExpectedIndex());
+            Object actualElement = operation.getKind() == ListDiffOperation.Kind.REMOVED 
+                    ? null 
+                    : actualElements.get(operation.getActualIndex());
+            message.append("\n  ").append(describe(operation, expectedElement, actualElement));
+        }
+        if (operations.size() > MAX_DIFF_OPERATIONS) {
+            message.append("\n  ...");
+        }
+        return new CollectionDiffFailure(message.toString(), expectedText, actualText);
+    }
+    
+    private String describe(ListDiffOperation operation, Object expected, Object actual) {
+        String count = operation.getCount() > 1 ? " (" + operation.getCount() + " elements)" : "";
+        switch (operation.getKind()) {
+            case INSERTED:
+                return "inserted at " + operation.getActualIndex() + count + ": " + preview(actual);
+            case REMOVED:
+                return "removed at " + operation.getExpectedIndex() + count + ": " + preview(expected);
+            default:
+                return "changed at " + operation.getExpectedIndex() + count + ": " 
+                        + preview(expected) + " -> " + preview(actual);
+        }
+    }
+    
+    private String preview(Object element) {
+        String text = text(element);
+        return text.length() <= PREVIEW_LIMIT ? text : text.substring(0, PREVIEW_LIMIT) + "...";
+    }
+    
+    private Map<String, Integer> fingerprints() {
+        if (fingerprints == null) {
+            fingerprints = new HashMap<>(actual.size() * 2);
+            for (T element : actual) {
+                fingerprints.merge(fingerprint(element), 1, Integer::sum);
+            }
+        }
+        return fingerprints;
+    }
+    
+    /* sorted and hashed collections may reject the elements of other types */
+    private boolean containsEqual(Object element) {
+        try {
+            return actual.contains(element);
+        } catch (ClassCastException | NullPointerException e) {
+            return false;
+        }
+    }
+    
+    /* json form of an unmatched actual element which is equal to the expected one */
+    private String equalFingerprint(Object expected, Map<String, Integer> unmatched) {
+        for (T element : actual) {
+            if (Objects.equals(element, expected)) {
+                String fingerprint = fingerprint(element);
+                if (unmatched.containsKey(fingerprint)) {
+                    return fingerprint;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /* json form keeps the types apart, unlike toString() of jvm classes */
+    private String fingerprint(Object element) {
+        return element == null ? "null" : jsonOf(element);
+    }
+    
+    private String text(Object element) {
+        return element == null ? "null" : stringOf(element);
     }
     
     private List<?> expectedList(Object... expected) {
@@ -100,13 +309,67 @@ public class CollectionCheck<T> extends AbstractCheck {
                         return null;
                     }
                     if (e.getClass() == String.class) {
-                        String expectedString = (String) e;
-                        if (ResourceUtils.isResource(expectedString)) {
-                            return ResourceUtils.toString(expectedString);
-                        }
+                        return FixtureCache.resolve((String) e);
                     }
                     return e;
                 })
                 .collect(Collectors.toList());
     }
+    
+    /**
+     * Matches the elements field by field and, if they differ, by the hashes of their json forms.
+     * The hash of an element is computed once and its json form is not kept, 
+     * so the memory of the diff stays bounded however many elements it compares.
+     */
+    private static final class HashMatcher implements ListDiff.Matcher {
+        
+        private final List<?> expected;
+        private final List<?> actual;
+        /* 0 marks the hashes which are not computed yet */
+        private final long[] expectedHashes;
+        private final long[] actualHashes;
+
+        private HashMatcher(List<?> expected, List<?> actual) {
+            this.expected = expected;
+            this.actual = actual;
+            this.expectedHashes = new long[expected.size()];
+            this.actualHashes = new long[actual.size()];
+        }
+
+        @Override
+        public boolean matches(int expectedIndex, int actualIndex) {
+            Object expectedElement = expected.get(expectedIndex);
+            Object actualElement = actual.get(actualIndex);
+            if (expectedElement == actualElement) {
+                return true;
+            }
+            if (expectedElement == null || actualElement == null) {
+                return false;
+            }
+            if (expectedElement.getClass() == actualElement.getClass() 
+                    && ObjectComparator.equal(expectedElement, actualElement)) {
+                return true;
+            }
+            return hash(expectedHashes, expected, expectedIndex) == hash(actualHashes, actual, actualIndex);
+        }
+        
+        private static long hash(long[] hashes, List<?> elements, int index) {
+            long hash = hashes[index];
+            if (hash == 0) {
+                hash = hash(CheckUtils.toJson(elements.get(index)));
+                hashes[index] = hash;
+            }
+            return hash;
+        }
+        
+        /* 64-bit FNV-1a */
+        private static long hash(String json) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < json.length(); i++) {
+                hash ^= json.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash == 0 ? 1 : hash;
+        }
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import java.util.Arrays;
+
+/**
+ * Primitive double array checker. Compares the arrays with {@link Arrays#mismatch(double[], double[])}
+ * and checks the tolerance only for the elements which are not exactly equal.
+ * By default the elements are equal if they have the same bits, 
+ * so {@code NaN} is equal to {@code NaN} and {@code 0.0} is not equal to {@code -0.0}.
+ */
+public class DoubleArrayCheck extends AbstractArrayCheck<double[]> {
+    
+    private double[] actual;
+    private double epsilon;
+    private long ulps;
+
+    public DoubleArrayCheck(double[] actual) {
+        this.actual = actual;
+    }
+
+    /**
+     * Allows the absolute difference between the expected and actual elements up to the epsilon.
+     */
+    public DoubleArrayCheck within(double epsilon) {
+        this.epsilon = epsilon;
+        return this;
+    }
+
+    /**
+     * Allows the expected and actual elements to be up to the given number of representable values apart.
+     */
+    public DoubleArrayCheck withinUlps(long ulps) {
+        this.ulps = ulps;
+        return this;
+    }
+
+    public void is(double... expected) {
+        if (!compared(expected)) {
+            return;
+        }
+        int index = mismatch(expected);
+        if (index >= 0) {
+            failAt(index, expected.length, (builder, i) -> builder.append(expected[i]),
+                    (builder, i) -> builder.append(actual[i]));
+        }
+    }
+
+    @Override
+    protected double[] actual() {
+        return actual;
+    }
+    
+    private int mismatch(double[] expected) {
+        if (epsilon == 0 && ulps == 0) {
+            return Arrays.mismatch(expected, actual);
+        }
+        int length = Math.min(expected.length, actual.length);
+        int from = 0;
+        while (from < length) {
+            int relativeIndex = Arrays.mismatch(expected, from, length, actual, from, length);
+            if (relativeIndex < 0) {
+                break;
+            }
+            int index = from + relativeIndex;
+            if (!close(expected[index], actual[index])) {
+                return index;
+            }
+            from = index + 1;
+        }
+        return expected.length == actual.length ? -1 : length;
+    }
+    
+    private boolean close(double expected, double actual) {
+        if (Math.abs(expected - actual) <= epsilon) {
+            return true;
+        }
+        if (Double.isNaN(expected) || Double.isNaN(actual)) {
+            return false;
+        }
+        long expectedBits = ordered(Double.doubleToLongBits(expected));
+        long actualBits = ordered(Double.doubleToLongBits(actual));
+        try {
+            return Math.abs(Math.subtractExact(expectedBits, actualBits)) <= ulps;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+    
+    /* maps the bits to the values which are ordered the same way as the floating point numbers */
+    private static long ordered(long bits) {
+        return bits < 0 ? Long.MIN_VALUE - bits : bits;
+    }
+}
@@ -17,10 +17,9 @@ package software.plusminus.check;
 
 import lombok.AllArgsConstructor;
 
-import static org.junit.Assert.assertEquals;
-
 /**
  * Double primitive checker.
+ * Values are equal if they are the same number, both zeros or both NaN.
  *
  * @author Taras Shpek
  */
@@ -30,11 +29,13 @@ public class DoubleCheck extends AbstractNumberCheck {
     private double actual;
 
     public void is(double expected) {
-        assertEquals(expected, actual);
+        if (expected != actual && Double.compare(expected, actual) != 0) {
+            checkEquals(expected, actual);
+        }
     }
     
     public void is(String expected) {
-        assertEquals(Double.parseDouble(expected), actual);
+        is(Double.parseDouble(expected));
     }
 
     @Override
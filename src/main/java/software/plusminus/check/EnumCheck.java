@@ -17,23 +17,25 @@ package software.plusminus.check;
 
 import lombok.AllArgsConstructor;
 
-import static org.junit.Assert.assertEquals;
-
 /**
  * Enum checker.
  *
  * @author Taras Shpek
  */
 @AllArgsConstructor
-public class EnumCheck<T extends Enum<T>> {
+public class EnumCheck<T extends Enum<T>> extends AbstractCheck {
     
     private T actual;
     
     public void is(T expected) {
-        assertEquals(expected, actual);
+        if (expected != actual) {
+            checkEquals(expected, actual);
+        }
     }
 
     public void is(String expected) {
-        assertEquals(actual.name(), expected);
+        if (!actual.name().equals(expected)) {
+            checkEquals(actual.name(), expected);
+        }
     }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retries checks until they pass or the time is out, see {@link Checks#eventually(Duration)}.
+ * The failed attempts are retried after exponentially growing random delays 
+ * (from 10 ms to 1 s by default) or, with a {@link Signal}, as soon as the signal is given.
+ * Only the failures thrown by the checks ({@link AssertionError}s) are retried, other exceptions stop the waiting.
+ * When the time is out the failure of the last attempt is reported.
+ * The attempts of a check are not a part of the enclosing {@link Checks#batch(Runnable)}, only its result is.
+ */
+public final class Eventually {
+    
+    private static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(10);
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(1);
+    
+    private final long timeout;
+    private long minDelay = DEFAULT_MIN_DELAY.toNanos();
+    private long maxDelay = DEFAULT_MAX_DELAY.toNanos();
+    private Signal signal;
+
+    Eventually(Duration timeout) {
+        this.timeout = timeout.toNanos();
+    }
+    
+    /**
+     * Sets the delays between the attempts: the first one and the limit of their exponential growth.
+     */
+    public Eventually pollInterval(Duration min, Duration max) {
+        if (min.isNegative() || min.isZero() || max.compareTo(min) < 0) {
+            throw new IllegalArgumentException("Poll interval should be positive and max should not be less than min");
+        }
+        minDelay = min.toNanos();
+        maxDelay = max.toNanos();
+        return this;
+    }
+    
+    /**
+     * Retries the failed checks when the signal is given instead of polling.
+     * The maximum poll interval is still used as a fallback.
+     */
+    public Eventually on(Signal retrySignal) {
+        this.signal = retrySignal;
+        return this;
+    }
+    
+    /**
+     * Waits in the current thread until the checks pass.
+     */
+    public void until(Runnable checks) {
+        AssertionError failure;
+        try {
+            failure = await(checks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the checks", e);
+        }
+        if (failure == null) {
+            return;
+        }
+        Batch batch = Batch.current();
+        if (batch == null) {
+            throw failure;
+        }
+        batch.addError(failure);
+    }
+
+    /**
+     * Waits for the checks in a virtual thread (a daemon platform thread before Java 21).
+     * The future completes exceptionally with the last failure when the time is out.
+     */
+    public CompletableFuture<Void> untilAsync(Runnable checks) {
+        return CompletableFuture.runAsync(() -> until(checks), Waiters.EXECUTOR);
+    }
+    
+    private AssertionError await(Runnable checks) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout;
+        long delay = minDelay;
+        while (true) {
+            long version = signal == null ? 0 : signal.version();
+            AssertionError failure = attempt(checks);
+            long remaining = deadline - System.nanoTime();
+            if (failure == null || remaining <= 0) {
+                return failure;
+            }
+            if (signal == null) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(jitter(delay), remaining));
+                delay = Math.min(delay * 2, maxDelay);
+            } else {
+                signal.await(version, Math.min(maxDelay, remaining));
+            }
+        }
+    }
+    
+    private static AssertionError attempt(Runnable checks) {
+        try {
+            Batch.outside(checks);
+            return null;
+        } catch (AssertionError e) {
+            return e;
+        }
+    }
+    
+    /* a random delay between the half and the whole of the current one, so concurrent waiters do not poll in step */
+    private static long jitter(long delay) {
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+    
+    private static final class Waiters {
+        
+        private static final ExecutorService EXECUTOR = create();
+        
+        private static ExecutorService create() {
+            try {
+                MethodHandle virtual = MethodHandles.publicLookup().findStatic(Executors.class, 
+                        "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+                return (ExecutorService) virtual.invoke();
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return Executors.newCachedThreadPool(new DaemonThreads());
+            } catch (Throwable e) {
+                throw new IllegalStateException("Can't create virtual threads", e);
+            }
+        }
+    }
+    
+    private static final class DaemonThreads implements ThreadFactory {
+        
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "plusminus-check-eventually-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
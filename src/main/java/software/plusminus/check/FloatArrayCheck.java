@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import java.util.Arrays;
+
+/**
+ * Primitive float array checker. Compares the arrays with {@link Arrays#mismatch(float[], float[])}
+ * and checks the tolerance only for the elements which are not exactly equal.
+ * By default the elements are equal if they have the same bits, 
+ * so {@code NaN} is equal to {@code NaN} and {@code 0.0} is not equal to {@code -0.0}.
+ */
+public class FloatArrayCheck extends AbstractArrayCheck<float[]> {
+    
+    private float[] actual;
+    private float epsilon;
+    private int ulps;
+
+    public FloatArrayCheck(float[] actual) {
+        this.actual = actual;
+    }
+
+    /**
+     * Allows the absolute difference between the expected and actual elements up to the epsilon.
+     */
+    public FloatArrayCheck within(float epsilon) {
+        this.epsilon = epsilon;
+        return this;
+    }
+
+    /**
+     * Allows the expected and actual elements to be up to the given number of representable values apart.
+     */
+    public FloatArrayCheck withinUlps(int ulps) {
+        this.ulps = ulps;
+        return this;
+    }
+
+    public void is(float... expected) {
+        if (!compared(expected)) {
+            return;
+        }
+        int index = mismatch(expected);
+        if (index >= 0) {
+            failAt(index, expected.length, (builder, i) -> builder.append(expected[i]),
+                    (builder, i) -> builder.append(actual[i]));
+        }
+    }
+
+    @Override
+    protected float[] actual() {
+        return actual;
+    }
+    
+    private int mismatch(float[] expected) {
+        if (epsilon == 0 && ulps == 0) {
+            return Arrays.mismatch(expected, actual);
+        }
+        int length = Math.min(expected.length, actual.length);
+        int from = 0;
+        while (from < length) {
+            int relativeIndex = Arrays.mismatch(expected, from, length, actual, from, length);
+            if (relativeIndex < 0) {
+                break;
+            }
+            int index = from + relativeIndex;
+            if (!close(expected[index], actual[index])) {
+                return index;
+            }
+            from = index + 1;
+        }
+        return expected.length == actual.length ? -1 : length;
+    }
+    
+    private boolean close(float expected, float actual) {
+        if (Math.abs(expected - actual) <= epsilon) {
+            return true;
+        }
+        if (Float.isNaN(expected) || Float.isNaN(actual)) {
+            return false;
+        }
+        int expectedBits = ordered(Float.floatToIntBits(expected));
+        int actualBits = ordered(Float.floatToIntBits(actual));
+        try {
+            return Math.abs(Math.subtractExact(expectedBits, actualBits)) <= ulps;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+    
+    /* maps the bits to the values which are ordered the same way as the floating point numbers */
+    private static int ordered(int bits) {
+        return bits < 0 ? Integer.MIN_VALUE - bits : bits;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Primitive int array checker. Compares the arrays with {@link Arrays#mismatch(int[], int[])}.
+ */
+@AllArgsConstructor
+public class IntArrayCheck extends AbstractArrayCheck<int[]> {
+    
+    private int[] actual;
+
+    public void is(int... expected) {
+        if (!compared(expected)) {
+            return;
+        }
+        int index = Arrays.mismatch(expected, actual);
+        if (index >= 0) {
+            failAt(index, expected.length, (builder, i) -> builder.append(expected[i]),
+                    (builder, i) -> builder.append(actual[i]));
+        }
+    }
+
+    @Override
+    protected int[] actual() {
+        return actual;
+    }
+}
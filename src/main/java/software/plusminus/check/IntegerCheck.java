@@ -17,8 +17,6 @@ package software.plusminus.check;
 
 import lombok.AllArgsConstructor;
 
-import static org.junit.Assert.assertEquals;
-
 /**
  * Integer primitive checker.
  *
@@ -30,11 +28,15 @@ public class IntegerCheck extends AbstractNumberCheck {
     private int actual;
 
     public void is(int expected) {
-        assertEquals(expected, actual);
+        if (expected != actual) {
+            checkEquals((long) expected, (long) actual);
+        }
     }
 
     public void is(long expected) {
-        assertEquals(expected, actual);
+        if (expected != actual) {
+            checkEquals(expected, (long) actual);
+        }
     }
     
     @Override
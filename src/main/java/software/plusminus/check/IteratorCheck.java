@@ -0,0 +1,189 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import software.plusminus.check.exception.JsonException;
+import software.plusminus.check.util.FixtureCache;
+import software.plusminus.check.util.JsonComparator;
+import software.plusminus.check.util.JsonUtils;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+
+/**
+ * Checker of lazily produced elements: streams, iterators and spliterators.
+ * The elements are consumed one at a time and compared the same way as {@link CollectionCheck} does,
+ * so they are never collected and the check stops at the first difference.
+ * The source can be checked only once, a stream is closed after the check.
+ * Infinite sources are checked with {@link #startsWith(Object...)} or after {@link #limit(long)}.
+ */
+public class IteratorCheck<T> extends AbstractCheck {
+    
+    private final Iterator<T> actual;
+    private final Stream<T> stream;
+    private long limit = Long.MAX_VALUE;
+    private long position;
+    private boolean consumed;
+
+    public IteratorCheck(Iterator<T> actual) {
+        this(actual, null);
+    }
+
+    public IteratorCheck(Spliterator<T> actual) {
+        this(Spliterators.iterator(actual), null);
+    }
+
+    public IteratorCheck(Stream<T> actual) {
+        this(actual.iterator(), actual);
+    }
+    
+    private IteratorCheck(Iterator<T> actual, Stream<T> stream) {
+        this.actual = actual;
+        this.stream = stream;
+    }
+
+    /**
+     * Checks only the first elements of the source.
+     */
+    public IteratorCheck<T> limit(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Limit should not be negative: " + maxSize);
+        }
+        limit = maxSize;
+        return this;
+    }
+
+    /**
+     * Checks that the source produces exactly the expected elements.
+     * A single string is resolved as a fixture: a json array is compared with the elements one by one 
+     * and is not parsed completely either.
+     */
+    public void is(Object... expected) {
+        if (expected.length == 1 && expected[0] instanceof String) {
+            String json = FixtureCache.resolve((String) expected[0]);
+            if (json.startsWith("[") && JsonUtils.isJson(json)) {
+                consume(() -> checkJsonArray(json));
+                return;
+            }
+        }
+        consume(() -> checkElements(expected, true));
+    }
+
+    /**
+     * Checks the first elements only, the rest of the source is not consumed.
+     */
+    public void startsWith(Object... expected) {
+        consume(() -> checkElements(expected, false));
+    }
+
+    /**
+     * Counts the elements without keeping them. At most {@code expected + 1} elements are consumed,
+     * so an infinite source fails the check instead of hanging.
+     */
+    public void hasSize(long expected) {
+        consume(() -> {
+            long size = 0;
+            while (size <= expected && hasNext()) {
+                next();
+                size++;
+            }
+            if (size != expected) {
+                fail("size is " + expected, size > expected ? "size is more than " + expected : "size is " + size);
+            }
+        });
+    }
+    
+    private void checkElements(Object[] expected, boolean whole) {
+        for (int i = 0; i < expected.length; i++) {
+            Object expectedElement = resolve(expected[i]);
+            if (!hasNext()) {
+                fail((whole ? "size is " : "size is at least ") + expected.length, "size is " + i);
+                return;
+            }
+            T actualElement = next();
+            if (!sameElement(expectedElement, actualElement)) {
+                failAt(i, jsonOf(expectedElement), jsonOf(actualElement));
+                return;
+            }
+        }
+        if (whole && hasNext()) {
+            fail("size is " + expected.length, "size is more than " + expected.length);
+        }
+    }
+
+    private void checkJsonArray(String json) {
+        try (JsonParser parser = JsonComparator.createParser(json)) {
+            parser.nextToken();
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                String expectedElement = JsonComparator.readValue(parser);
+                if (!hasNext()) {
+                    fail("size is more than " + index, "size is " + index);
+                    return;
+                }
+                String actualElement = jsonOf(next());
+                if (!expectedElement.equals(actualElement) 
+                        && JsonUtils.compare(expectedElement, actualElement).isPresent()) {
+                    failAt(index, expectedElement, actualElement);
+                    return;
+                }
+                index++;
+            }
+            if (hasNext()) {
+                fail("size is " + index, "size is more than " + index);
+            }
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+    
+    private void failAt(int index, String expectedJson, String actualJson) {
+        String header = "at /" + index + "\n";
+        report(() -> failure(header + JsonUtils.pretty(expectedJson), header + JsonUtils.pretty(actualJson)));
+    }
+    
+    private boolean hasNext() {
+        return position < limit && actual.hasNext();
+    }
+    
+    private T next() {
+        position++;
+        return actual.next();
+    }
+    
+    private void consume(Runnable check) {
+        if (consumed) {
+            throw new IllegalStateException("The elements were already consumed by the previous check");
+        }
+        consumed = true;
+        try {
+            check.run();
+        } finally {
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+    
+    private static Object resolve(Object expected) {
+        return expected instanceof String ? FixtureCache.resolve((String) expected) : expected;
+    }
+}
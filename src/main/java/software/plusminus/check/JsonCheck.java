@@ -15,58 +15,114 @@
  */
 package software.plusminus.check;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
 import lombok.RequiredArgsConstructor;
-import org.junit.Assert;
-import software.plusminus.check.util.CheckUtils;
+import software.plusminus.check.exception.JsonException;
+import software.plusminus.check.util.FixtureCache;
+import software.plusminus.check.util.JsonPointers;
 import software.plusminus.check.util.JsonUtils;
-import software.plusminus.util.ResourceUtils;
+import software.plusminus.check.util.UnorderedArrays;
 
-import java.util.HashSet;
-import java.util.Map;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-
-import static org.junit.Assert.assertEquals;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Json checker.
+ * Keeps the parsed actual document and the separately checked fields between the calls,
+ * so an instance must be used by a single thread.
  *
  * @author Taras Shpek
  */
 @RequiredArgsConstructor
 public class JsonCheck extends AbstractCheck {
     
+    private static final JsonNode SEPARATELY_CHECKED = TextNode.valueOf("SEPARATELY CHECKED");
+    private static final Object MISSING = new Object();
+    
     private final String actual;
-    private BiConsumer<String, String> checker =
-            (e, a) -> assertEquals(JsonUtils.pretty(e), JsonUtils.pretty(a));
-    private Set<String> separatelyCheckedFields = new HashSet<>();
+    private BiConsumer<String, String> checker = this::checkJson;
+    private Set<JsonPointer> separatelyCheckedFields = new LinkedHashSet<>();
+    private JsonNode actualTree;
+    private boolean actualStreamed;
+    private boolean allArraysUnordered;
+    private Set<String> unorderedArrays = new LinkedHashSet<>();
     
     public void is(String expected) {
-        check(expected);
+        checkSnapshot(expected, () -> actual, () -> check(expected));
     }
     
     public void is(Object expected) {
-        is(CheckUtils.toJson(expected));
+        is(jsonOf(expected));
     }
     
-    public JsonCheck checkField(String fieldName, Consumer<Object> fieldValueChecker) {
-        separatelyCheckedFields.add(fieldName);
-        Map actualMap = JsonUtils.fromJson(actual, Map.class);
-        if (!actualMap.containsKey(fieldName)) {
-            fail("Field " + fieldName + " is present", "Field " + fieldName + " is missed");
+    /**
+     * Checks the field separately and excludes it from the further comparison.
+     * The field is either the name of a top-level field or a JSON Pointer ({@code /data/items/3/id}).
+     * The first field is read by skipping everything else in the actual json,
+     * the following ones are taken from its parsed tree.
+     */
+    public JsonCheck checkField(String field, Consumer<Object> fieldValueChecker) {
+        JsonPointer pointer = JsonPointers.compile(field);
+        separatelyCheckedFields.add(pointer);
+        Object value = actualStreamed ? fieldFromTree(pointer) : fieldFromStream(pointer);
+        actualStreamed = true;
+        if (value == MISSING) {
+            fail("Field " + field + " is present", "Field " + field + " is missed");
+        } else {
+            fieldValueChecker.accept(value);
         }
-        fieldValueChecker.accept(actualMap.get(fieldName));
         return this;
     }
     
     public JsonCheck exact() {
-        checker = Assert::assertEquals;
+        checker = (e, a) -> {
+            if (!e.equals(a)) {
+                fail(e, a);
+            }
+        };
         return this;
     }
     
     public JsonCheck ignoringFieldsOrder() {
-        checker = (e, a) -> assertEquals(JsonUtils.pretty(e), JsonUtils.prettyOrdered(a, e));
+        checker = (e, a) -> {
+            String expectedPretty = JsonUtils.pretty(e);
+            String actualPretty = JsonUtils.prettyOrdered(a, e);
+            if (!expectedPretty.equals(actualPretty)) {
+                fail(expectedPretty, actualPretty);
+            }
+        };
+        return this;
+    }
+    
+    /**
+     * Ignores the order of elements in all arrays.
+     * The elements of the actual arrays which have no equal elements in the expected arrays 
+     * (and vice versa) are reported.
+     */
+    public JsonCheck ignoringArraysOrder() {
+        allArraysUnordered = true;
+        return this;
+    }
+
+    /**
+     * Ignores the order of elements in the arrays located by JSON Pointers ({@code /data/items}) 
+     * in the expected json.
+     */
+    public JsonCheck ignoringArraysOrder(String... arrays) {
+        for (String array : arrays) {
+            unorderedArrays.add(JsonPointers.compile(array).toString());
+        }
         return this;
     }
     
@@ -77,25 +133,90 @@ public class JsonCheck extends AbstractCheck {
         if (actual.equals(expected)) {
             return;
         }
-        if (ResourceUtils.isResource(expected)) {
-            expected = ResourceUtils.toString(expected);
+        FixtureCache.Fixture fixture = FixtureCache.get(expected);
+        if (fixture != null) {
+            expected = fixture.getText();
         }
 
         if (!JsonUtils.isJson(expected)) {
             throw new AssertionError("expected should be json");
         }
         
-        if (!separatelyCheckedFields.isEmpty()) {
-            checker.accept(replaceSeparatelyCheckedFields(expected),
-                    replaceSeparatelyCheckedFields(actual));
+        boolean arraysUnordered = allArraysUnordered || !unorderedArrays.isEmpty();
+        if (!separatelyCheckedFields.isEmpty() || arraysUnordered) {
+            JsonNode expectedTree = fixture == null ? JsonUtils.toTree(expected) : fixture.getTree();
+            expectedTree = replaceSeparatelyCheckedFields(expectedTree);
+            JsonNode actualCopy = replaceSeparatelyCheckedFields(actualTree());
+            if (arraysUnordered && !reorderArrays(expectedTree, actualCopy)) {
+                return;
+            }
+            checker.accept(JsonUtils.toJson(expectedTree), JsonUtils.toJson(actualCopy));
         } else {
             checker.accept(expected, actual);
         }
     }
     
-    private String replaceSeparatelyCheckedFields(String json) {
-        Map jsonMap = JsonUtils.fromJson(json, Map.class);
-        separatelyCheckedFields.forEach(field -> jsonMap.put(field, "SEPARATELY CHECKED"));
-        return JsonUtils.toJson(jsonMap);
+    private JsonNode replaceSeparatelyCheckedFields(JsonNode json) {
+        if (separatelyCheckedFields.isEmpty()) {
+            return json.deepCopy();
+        }
+        if (!json.isContainerNode()) {
+            throw new AssertionError("json with separately checked fields should be an object or an array");
+        }
+        JsonNode copy = json.deepCopy();
+        separatelyCheckedFields.forEach(field -> JsonPointers.replace(copy, field, SEPARATELY_CHECKED));
+        return copy;
+    }
+    
+    private boolean reorderArrays(JsonNode expected, JsonNode actualCopy) {
+        List<UnorderedArrays.Mismatch> mismatches = allArraysUnordered
+                ? UnorderedArrays.reorder(expected, actualCopy)
+                : UnorderedArrays.reorder(expected, actualCopy, unorderedArrays);
+        if (mismatches.isEmpty()) {
+            return true;
+        }
+        report(() -> failure(unmatchedElements(mismatches, UnorderedArrays.Mismatch::getExpected),
+                unmatchedElements(mismatches, UnorderedArrays.Mismatch::getActual)));
+        return false;
+    }
+    
+    private String unmatchedElements(List<UnorderedArrays.Mismatch> mismatches,
+                                     Function<UnorderedArrays.Mismatch, List<JsonNode>> elements) {
+        return mismatches.stream()
+                .map(mismatch -> "at " + mismatch.getPathDescription() + " unmatched elements:\n"
+                        + JsonUtils.pretty(JsonUtils.toJson(elements.apply(mismatch))))
+                .collect(Collectors.joining("\n"));
+    }
+    
+    private Object fieldFromStream(JsonPointer pointer) {
+        ObjectMapper mapper = JsonUtils.getObjectMapper();
+        try (JsonParser parser = mapper.getFactory().createParser(actual)) {
+            if (!JsonPointers.find(parser, pointer)) {
+                return MISSING;
+            }
+            return mapper.readValue(parser, Object.class);
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+    
+    private Object fieldFromTree(JsonPointer pointer) {
+        JsonNode node = actualTree().at(pointer);
+        if (node.isMissingNode()) {
+            return MISSING;
+        }
+        try {
+            return JsonUtils.getObjectMapper().treeToValue(node, Object.class);
+        } catch (JsonProcessingException e) {
+            throw new JsonException(e);
+        }
     }
+    
+    private JsonNode actualTree() {
+        if (actualTree == null) {
+            actualTree = JsonUtils.toTree(actual);
+        }
+        return actualTree;
+    }
+
 }
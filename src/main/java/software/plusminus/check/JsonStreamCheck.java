@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import software.plusminus.check.exception.JsonException;
+import software.plusminus.check.metrics.CheckPhase;
+import software.plusminus.check.metrics.Instrumentation;
+import software.plusminus.check.util.FixtureCache;
+import software.plusminus.check.util.JsonComparator;
+import software.plusminus.check.util.JsonMismatch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Checker of json documents which are read incrementally from files, streams or buffers.
+ * The documents are compared token by token (see {@link JsonComparator}) and are never loaded completely,
+ * so the memory use does not depend on their size. The layout is ignored while the fields order 
+ * and the number formats are significant.
+ * On failure files and buffers are read again to show the region around the difference,
+ * streams are read only once, so only the different values are shown for them.
+ */
+public class JsonStreamCheck extends AbstractCheck {
+    
+    private final Input actual;
+
+    public JsonStreamCheck(Path actual) {
+        this.actual = input(actual);
+    }
+
+    /**
+     * The stream is read up to the first difference and is not closed.
+     */
+    public JsonStreamCheck(InputStream actual) {
+        this.actual = input(actual);
+    }
+
+    public JsonStreamCheck(ByteBuffer actual) {
+        this.actual = input(actual);
+    }
+    
+    public void is(Path expected) {
+        check(input(expected));
+    }
+    
+    public void is(InputStream expected) {
+        check(input(expected));
+    }
+    
+    public void is(ByteBuffer expected) {
+        check(input(expected));
+    }
+
+    /**
+     * Compares with the json or the json resource (which is loaded to the memory, so prefer {@link #is(Path)} 
+     * for big expected documents).
+     */
+    public void is(String expected) {
+        String json = FixtureCache.resolve(expected);
+        check(new Input(() -> JsonComparator.createParser(json), true));
+    }
+    
+    private void check(Input expected) {
+        JsonMismatch mismatch;
+        long start = Instrumentation.start();
+        long chars = 0;
+        try (JsonParser expectedParser = expected.open();
+             JsonParser actualParser = actual.open()) {
+            mismatch = JsonComparator.compare(expectedParser, actualParser).orElse(null);
+            chars = offset(expectedParser) + offset(actualParser);
+        } catch (IOException e) {
+            throw new JsonException(e);
+        } finally {
+            Instrumentation.end(CheckPhase.COMPARE, start, chars);
+        }
+        if (mismatch != null) {
+            report(() -> failure(region(expected, mismatch, true), region(actual, mismatch, false)));
+        }
+    }
+    
+    /* parsers of strings count chars, parsers of streams and buffers count bytes */
+    private static long offset(JsonParser parser) {
+        JsonLocation location = parser.getCurrentLocation();
+        long chars = location.getCharOffset();
+        return chars >= 0 ? chars : Math.max(0, location.getByteOffset());
+    }
+    
+    private static String region(Input input, JsonMismatch mismatch, boolean expected) {
+        if (!input.rereadable) {
+            return "at " + mismatch.getPathDescription() + ": " 
+                    + (expected ? mismatch.getExpected() : mismatch.getActual());
+        }
+        try (JsonParser parser = input.open()) {
+            return expected 
+                    ? JsonComparator.expectedRegion(parser, mismatch) 
+                    : JsonComparator.actualRegion(parser, mismatch);
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+    
+    private static Input input(Path path) {
+        return new Input(() -> JsonComparator.createParser(
+                Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ))), true);
+    }
+    
+    private static Input input(InputStream stream) {
+        return new Input(() -> JsonComparator.createParser(stream)
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE), false);
+    }
+    
+    private static Input input(ByteBuffer buffer) {
+        return new Input(() -> JsonComparator.createParser(new ByteBufferBackedInputStream(buffer.duplicate())), 
+                true);
+    }
+    
+    @FunctionalInterface
+    private interface ParserFactory {
+        JsonParser create() throws IOException;
+    }
+    
+    /**
+     * Json document which can be read once or, if rereadable, any number of times from the beginning.
+     */
+    private static final class Input {
+        
+        private final ParserFactory factory;
+        private final boolean rereadable;
+        private boolean read;
+        
+        Input(ParserFactory factory, boolean rereadable) {
+            this.factory = factory;
+            this.rereadable = rereadable;
+        }
+        
+        JsonParser open() throws IOException {
+            if (read && !rereadable) {
+                throw new IllegalStateException("The stream is already read by a previous check");
+            }
+            read = true;
+            return factory.create();
+        }
+    }
+}
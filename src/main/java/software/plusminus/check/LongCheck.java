@@ -17,8 +17,6 @@ package software.plusminus.check;
 
 import lombok.AllArgsConstructor;
 
-import static org.junit.Assert.assertEquals;
-
 /**
  * Long primitive checker.
  *
@@ -30,7 +28,9 @@ public class LongCheck extends AbstractNumberCheck {
     private long actual;
 
     public void is(long expected) {
-        assertEquals(expected, actual);
+        if (expected != actual) {
+            checkEquals(expected, actual);
+        }
     }
 
     @Override
@@ -15,102 +15,257 @@
  */
 package software.plusminus.check;
 
-import software.plusminus.check.util.CheckUtils;
-import software.plusminus.util.ResourceUtils;
+import software.plusminus.check.diff.JsonDiff;
+import software.plusminus.check.diff.JsonDiffOperation;
+import software.plusminus.check.exception.JsonException;
+import software.plusminus.check.exception.MapDiffFailure;
+import software.plusminus.check.util.FixtureCache;
+import software.plusminus.check.util.JsonUtils;
 
-import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Map (including HashMap, TreeMap etc) checker.
- * Converts Map to to string (in Json or Jsog formats) before comparing.
+ * Probes the actual map by the expected keys and compares the values field by field,
+ * converting them to string (in Json or Jsog formats) only if they are different, 
+ * so the comparison is linear and does not depend on the iteration order of the maps.
+ * Keys which are not found by the map itself are matched by their string forms (e.g. {@code "1"} and {@code 1}),
+ * the same way as they appear in the json of the map.
  *
  * @author Taras Shpek
  */
 @SuppressWarnings("checkstyle:ParameterNumber")
 public class MapCheck<K, V> extends AbstractCheck {
+    
+    /* Maps up to this size are shown completely on failure, bigger ones only by the different keys */
+    private static final int FULL_FAILURE_SIZE = 100;
+    private static final Object MISSING = new Object();
 
     private Map<K, V> actual;
+    /* actual keys by their string forms, built on the first key which the map does not find itself */
+    private Map<String, Object> actualKeys;
 
     public MapCheck(Map<K, V> actual) {
         this.actual = actual;
     }
 
     public void hasSize(int expected) {
-        if (actual.size() != expected) {
+        if (actual == null) {
+            fail("size is " + expected, "is null");
+        } else if (actual.size() != expected) {
             fail("size is " + expected, "size is " + actual.size());
         }
     }
 
     public void isEmpty() {
-        if (!actual.isEmpty()) {
+        if (actual == null) {
+            fail("to be empty", "is null");
+        } else if (!actual.isEmpty()) {
             fail("to be empty", "contains " + actual.size() + " elements");
         }
     }
     
     public void is(Map<K, V> expected) {
-        checkJson(CheckUtils.toJson(expected), CheckUtils.toJson(actual));
+        checkMap(expected, true);
     }
     
     public void is(String expected) {
-        if (ResourceUtils.isResource(expected)) {
-            expected = ResourceUtils.toString(expected);
-        }
-        checkJson(expected, CheckUtils.toJson(actual));
+        checkSnapshot(expected, () -> jsonOf(actual),
+                () -> checkJson(FixtureCache.resolve(expected), jsonOf(actual)));
     }
 
     public void is(Object key, Object value) {
-        checkMap(key, value);
+        checkMap(toMap(key, value), true);
     }
 
     public void is(Object key1, Object value1, Object key2, Object value2) {
-        checkMap(key1, value1, key2, value2);
+        checkMap(toMap(key1, value1, key2, value2), true);
     }
 
     public void is(Object key1, Object value1, Object key2, Object value2, Object key3, Object value3) {
-        checkMap(key1, value1, key2, value2, key3, value3);
+        checkMap(toMap(key1, value1, key2, value2, key3, value3), true);
     }
 
     public void is(Object key1, Object value1, Object key2, Object value2, Object key3, Object value3,
                    Object key4, Object value4) {
-        checkMap(key1, value1, key2, value2, key3, value3, key4, value4);
-    }
-
-    private void checkMap(Object... expectedKeyValues) {
-        Map<Object, Object> expected = toMap(expectedKeyValues);
-        expected = prepareExpectedMap(expected);
-        checkJson(CheckUtils.toJson(prepareExpectedMap(expected)), CheckUtils.toJson(actual));
-    }
-
-    private Map<Object, Object> prepareExpectedMap(Map<Object, Object> expected) {
-        return expected.entrySet().stream()
-                .map(e -> {
-                    if (e.getKey().getClass() == String.class) {
-                        String keyString = (String) e.getKey();
-                        if (ResourceUtils.isResource(keyString)) {
-                            e = new AbstractMap.SimpleEntry<>(ResourceUtils.toString(keyString), e.getValue());
-                        }
-                    }
-                    
-                    if (e.getValue().getClass() == String.class) {
-                        String valueString = (String) e.getKey();
-                        if (ResourceUtils.isResource(valueString)) {
-                            e = new AbstractMap.SimpleEntry<>(e.getKey(), ResourceUtils.toString(valueString));
-                        }
-                    }
-                    return e;
-                })
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        checkMap(toMap(key1, value1, key2, value2, key3, value3, key4, value4), true);
+    }
+
+    /**
+     * Checks the expected entries only, the other keys of the map are neither compared nor serialized.
+     */
+    public void containsEntries(Map<K, V> expected) {
+        checkMap(expected, false);
+    }
+
+    public void containsEntry(Object key, Object value) {
+        checkMap(toMap(key, value), false);
+    }
+
+    private void checkMap(Map<?, ?> expected, boolean exact) {
+        if (expected == actual) {
+            return;
+        }
+        if (actual == null) {
+            fail("is not null", "is null");
+            return;
+        }
+        if (expected == null) {
+            fail("is null", "size is " + actual.size());
+            return;
+        }
+        List<Object> missing = new ArrayList<>();
+        List<Object> different = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : expected.entrySet()) {
+            Object value = actualValue(entry.getKey());
+            if (value == MISSING) {
+                missing.add(entry.getKey());
+            } else if (!sameValue(entry.getValue(), value)) {
+                different.add(entry.getKey());
+            }
+        }
+        List<Object> extra = exact && (!missing.isEmpty() || expected.size() != actual.size())
+                ? extraKeys(expected)
+                : new ArrayList<>();
+        if (!missing.isEmpty() || !different.isEmpty() || !extra.isEmpty()) {
+            report(() -> mapFailure(expected, exact, missing, different, extra));
+        }
+    }
+    
+    /* values of different classes (e.g. a LinkedHashMap and a TreeMap) are compared by their normalized json */
+    private boolean sameValue(Object expected, Object actual) {
+        if (sameElement(expected, actual)) {
+            return true;
+        }
+        if (expected == null || actual == null) {
+            return false;
+        }
+        String expectedJson = jsonOf(expected);
+        String actualJson = jsonOf(actual);
+        try {
+            return JsonUtils.pretty(expectedJson).equals(JsonUtils.prettyOrdered(actualJson, expectedJson));
+        } catch (JsonException e) {
+            return false;
+        }
+    }
+    
+    private Object actualValue(Object key) {
+        Object value = find(actual, key);
+        if (value != MISSING) {
+            return value;
+        }
+        if (actualKeys == null) {
+            actualKeys = new HashMap<>(actual.size() * 2);
+            actual.keySet().forEach(k -> actualKeys.put(keyString(k), k));
+        }
+        Object actualKey = actualKeys.get(keyString(key));
+        return actualKey == null ? MISSING : actual.get(actualKey);
+    }
+    
+    private List<Object> extraKeys(Map<?, ?> expected) {
+        Map<String, Object> expectedKeys = new HashMap<>(expected.size() * 2);
+        expected.keySet().forEach(k -> expectedKeys.put(keyString(k), k));
+        List<Object> extra = new ArrayList<>();
+        for (K key : actual.keySet()) {
+            if (find(expected, key) == MISSING && !expectedKeys.containsKey(keyString(key))) {
+                extra.add(key);
+            }
+        }
+        return extra;
+    }
+    
+    private AssertionError mapFailure(Map<?, ?> expected, boolean exact, 
+                                      List<Object> missing, List<Object> different, List<Object> extra) {
+        Map<Object, Object> expectedDifferent = new LinkedHashMap<>();
+        Map<Object, Object> actualDifferent = new LinkedHashMap<>();
+        for (Object key : different) {
+            expectedDifferent.put(key, expected.get(key));
+            actualDifferent.put(key, actualValue(key));
+        }
+        StringBuilder message = new StringBuilder("map differs:");
+        appendKeys(message, "missing keys", missing);
+        appendKeys(message, "extra keys", extra);
+        appendKeys(message, "different values", different);
+        appendValueDifferences(message, jsonOf(expectedDifferent), jsonOf(actualDifferent));
+        
+        Map<Object, Object> expectedShown = new LinkedHashMap<>();
+        Map<Object, Object> actualShown = new LinkedHashMap<>();
+        if (exact && expected.size() <= FULL_FAILURE_SIZE && actual.size() <= FULL_FAILURE_SIZE) {
+            expectedShown.putAll(expected);
+            actualShown.putAll(actual);
+        } else {
+            missing.forEach(key -> expectedShown.put(key, expected.get(key)));
+            expectedShown.putAll(expectedDifferent);
+            actualShown.putAll(actualDifferent);
+            extra.forEach(key -> actualShown.put(key, actual.get(key)));
+        }
+        String expectedJson = jsonOf(expectedShown);
+        String actualJson = jsonOf(actualShown);
+        return new MapDiffFailure(message.toString(), 
+                JsonUtils.pretty(expectedJson), JsonUtils.prettyOrdered(actualJson, expectedJson));
     }
     
+    private void appendKeys(StringBuilder message, String title, List<Object> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        message.append("\n  ").append(title).append(": [");
+        for (int i = 0; i < keys.size(); i++) {
+            message.append(i == 0 ? "" : ", ").append(keyString(keys.get(i)));
+        }
+        message.append(']');
+    }
+    
+    private static void appendValueDifferences(StringBuilder message, String expectedValues, String actualValues) {
+        JsonDiff diff;
+        try {
+            diff = JsonDiff.of(expectedValues, actualValues);
+        } catch (JsonException e) {
+            return;
+        }
+        for (JsonDiffOperation operation : diff.getOperations()) {
+            message.append("\n    ").append(operation);
+        }
+        if (diff.isTruncated()) {
+            message.append("\n    ...");
+        }
+    }
+    
+    private String keyString(Object key) {
+        return key == null ? "null" : stringOf(key);
+    }
+    
+    /* maps may reject the keys of other types (e.g. a TreeMap) instead of not finding them */
+    private static Object find(Map<?, ?> map, Object key) {
+        try {
+            Object value = map.get(key);
+            return value != null || map.containsKey(key) ? value : MISSING;
+        } catch (ClassCastException | NullPointerException e) {
+            return MISSING;
+        }
+    }
+
+    /* String keys and values are resolved as fixtures */
     private Map<Object, Object> toMap(Object... keyValues) {
-        Map<Object, Object> map = new HashMap<>();
+        Map<Object, Object> map = new LinkedHashMap<>();
         for (int i = 0; i < keyValues.length; i = i + 2) {
-            map.put(keyValues[i], keyValues[i + 1]);
+            map.put(resolve(keyValues[i]), resolve(keyValues[i + 1]));
         }
         return map;
     }
+    
+    private static Object resolve(Object keyOrValue) {
+        if (keyOrValue instanceof String) {
+            FixtureCache.Fixture fixture = FixtureCache.get((String) keyOrValue);
+            if (fixture != null) {
+                return fixture.getText();
+            }
+        }
+        return keyOrValue;
+    }
 
 }
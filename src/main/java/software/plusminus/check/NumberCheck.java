@@ -17,7 +17,6 @@ package software.plusminus.check;
 
 import lombok.AllArgsConstructor;
 
-import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
 /**
@@ -31,15 +30,15 @@ public class NumberCheck<T extends Number> extends AbstractNumberCheck {
     private T actual;
 
     public void is(T expected) {
-        assertEquals(expected, actual);
+        checkEquals(expected, actual);
     }
     
     public void is(String expected) {
-        assertEquals(expected, actual.toString());
+        checkEquals(expected, actual.toString());
     }
     
     public void isNot(T unexpected) {
-        assertNotEquals(unexpected, actual);
+        verify(() -> assertNotEquals(unexpected, actual));
     }
     
     @Override
@@ -15,17 +15,17 @@
  */
 package software.plusminus.check;
 
-import software.plusminus.check.util.CheckUtils;
+import software.plusminus.check.util.FixtureCache;
 import software.plusminus.check.util.JsonUtils;
+import software.plusminus.check.util.ObjectComparator;
 import software.plusminus.util.ObjectUtils;
-import software.plusminus.util.ResourceUtils;
 
-import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 
 /**
  * Non-jvm classes checker.
- * Converts object to string (in Json or Jsog formats) before comparing. 
+ * Compares objects field by field and converts them to string (in Json or Jsog formats) 
+ * only if they are different. 
  *
  * @author Taras Shpek
  */
@@ -41,43 +41,46 @@ public class ObjectCheck<T> extends AbstractCheck {
         if (actual == expected) {
             return;
         }
-        checkClasses(expected);
-        checkJson(CheckUtils.toString(expected), CheckUtils.toString(actual));
+        if (!sameClasses(expected)) {
+            return;
+        }
+        if (ObjectComparator.equal(expected, actual)) {
+            return;
+        }
+        checkJson(stringOf(expected), stringOf(actual));
     }
     
     public void is(String expected) {
         if (actual.equals(expected)) {
             return;
         }
-        if (ResourceUtils.isResource(expected)) {
-            expected = ResourceUtils.toString(expected);
-        }
-        if (JsonUtils.isJson(expected)) {
-            checkJson(expected, CheckUtils.toString(actual));
-        } else {
-            assertEquals(expected, actual.toString());
-        }
+        checkSnapshot(expected, () -> stringOf(actual), () -> checkString(FixtureCache.resolve(expected)));
     }
 
     public void isEqual(T expected) {
         if (actual == expected) {
             return;
         }
-        checkClasses(expected);
+        if (!sameClasses(expected)) {
+            return;
+        }
         if (!ObjectUtils.equalsMethodIsOverridden(expected)) {
             fail("equals() must be overridden", "equals() is not overridden. "
                     + "Call is() method instead of isEqual()");
+            return;
         }
-        assertEquals(expected, actual);
+        checkEquals(expected, actual);
     }
     
     public void isSame(T expected) {
-        assertSame(expected, actual);
+        if (expected != actual) {
+            verify(() -> assertSame(expected, actual));
+        }
     }
     
     public void isNull() {
         if (actual != null) {
-            fail("is null", CheckUtils.toString(actual));
+            fail("is null", stringOf(actual));
         }
     }
     
@@ -89,16 +92,27 @@ public class ObjectCheck<T> extends AbstractCheck {
     
     public <X> ObjectCheck<X> as(Class<X> expectedType) {
         if (!expectedType.isAssignableFrom(actual.getClass())) {
-            fail("actual object should be an instance of " + expectedType.getName() + " class",
+            // the following checks can't be made, so the failure is thrown even inside of a batch
+            throw failure("actual object should be an instance of " + expectedType.getName() + " class",
                     "class of the actual object is " + actual.getClass().getName());
         }
         return new ObjectCheck<>(expectedType.cast(actual));
     }
     
-    private void checkClasses(Object expected) {
+    private void checkString(String expected) {
+        if (JsonUtils.isJson(expected)) {
+            checkJson(expected, stringOf(actual));
+        } else {
+            checkEquals(expected, actual.toString());
+        }
+    }
+    
+    private boolean sameClasses(Object expected) {
         if (actual.getClass() != expected.getClass()) {
             fail("class should be " + expected.getClass().getName(),
                     "class is " + actual.getClass().getName());
+            return false;
         }
+        return true;
     }
 }
@@ -37,7 +37,7 @@ public class OptionalCheck<T> extends AbstractCheck {
         } else if (actual.isPresent() && !expected.isPresent()) {
             fail("to be empty", "not empty");
         } else {
-            new ObjectCheck<>(actual.get()).is(expected.get());
+            delegate(new ObjectCheck<>(actual.get())).is(expected.get());
         }
     }
     
@@ -45,7 +45,7 @@ public class OptionalCheck<T> extends AbstractCheck {
         if (!actual.isPresent()) {
             fail("not empty", "empty");
         } else {
-            new ObjectCheck<>(actual.get()).is(expected);
+            delegate(new ObjectCheck<>(actual.get())).is(expected);
         }
     }
     
@@ -17,10 +17,8 @@ package software.plusminus.check;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import lombok.AllArgsConstructor;
+import software.plusminus.check.util.FixtureCache;
 import software.plusminus.check.util.JsonUtils;
-import software.plusminus.util.ResourceUtils;
-
-import static org.junit.Assert.assertEquals;
 
 /**
  * String checker.
@@ -35,28 +33,20 @@ public class StringCheck extends AbstractCheck {
     @SuppressFBWarnings("NP_LOAD_OF_KNOWN_NULL_VALUE")
     public void is(String expected) {
         if (expected == null) {
-            assertEquals(expected, actual);
+            checkEquals(expected, actual);
             return;
         }
         if (actual.equals(expected)) {
             return;
         }
-        if (ResourceUtils.isResource(expected)) {
-            expected = ResourceUtils.toString(expected);
-        }
-        
-        if (JsonUtils.isJson(expected)) {
-            checkJson(expected);
-        } else {
-            assertEquals(expected, actual);
-        }
+        checkSnapshot(expected, () -> actual, () -> checkString(FixtureCache.resolve(expected)));
     }
     
     public JsonCheck isJson() {
         if (!JsonUtils.isJson(actual)) {
             throw new AssertionError("expected should be json");
         }
-        return new JsonCheck(actual);
+        return delegate(new JsonCheck(actual));
     }
 
     public void isNull() {
@@ -71,7 +61,11 @@ public class StringCheck extends AbstractCheck {
         }
     }
     
-    private void checkJson(String json) {
-        assertEquals(JsonUtils.pretty(json), JsonUtils.pretty(actual));
+    private void checkString(String expected) {
+        if (JsonUtils.isJson(expected)) {
+            checkJson(expected, actual);
+        } else {
+            checkEquals(expected, actual);
+        }
     }
 }
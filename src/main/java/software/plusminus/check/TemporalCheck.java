@@ -20,8 +20,6 @@ import lombok.RequiredArgsConstructor;
 import java.time.Instant;
 import java.time.temporal.Temporal;
 
-import static org.junit.Assert.assertEquals;
-
 /**
  * Temporal checker.
  *
@@ -39,7 +37,7 @@ public class TemporalCheck extends AbstractCheck {
         if (actual.equals(expected)) {
             return;
         }
-        assertEquals(expected, actual);
+        checkEquals(expected, actual);
     }
 
     public void recent() {
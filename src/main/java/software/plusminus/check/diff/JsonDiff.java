@@ -0,0 +1,220 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.diff;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import software.plusminus.check.exception.JsonException;
+import software.plusminus.check.util.JsonUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural difference of two json documents as a bounded list of RFC 6902 style operations
+ * which turn the expected document into the actual one.
+ * Object fields are matched by name and array elements by index, so the diff is linear in the documents size.
+ * The fields order is ignored while the number formats are significant.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class JsonDiff {
+    
+    public static final int DEFAULT_LIMIT = 20;
+    
+    /* the mapper becomes the codec of its factory, so it gets a copy of the shared one */
+    private static final ObjectMapper MAPPER = new ObjectMapper(JsonUtils.getLenientFactory().copy())
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+    
+    List<JsonDiffOperation> operations;
+    /* true if there are more differences than the limit */
+    boolean truncated;
+    
+    /**
+     * Finds up to {@link #DEFAULT_LIMIT} differences.
+     *
+     * @throws JsonException if any of the documents is not a valid json
+     */
+    public static JsonDiff of(String expected, String actual) {
+        return of(expected, actual, DEFAULT_LIMIT);
+    }
+    
+    /**
+     * Finds up to {@code limit} differences.
+     *
+     * @throws JsonException if any of the documents is not a valid json
+     */
+    public static JsonDiff of(String expected, String actual, int limit) {
+        return of(parse(expected), parse(actual), limit);
+    }
+    
+    public static JsonDiff of(JsonNode expected, JsonNode actual, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit should be positive: " + limit);
+        }
+        Walker walker = new Walker(limit);
+        walker.compare(expected, actual);
+        return new JsonDiff(Collections.unmodifiableList(walker.operations), walker.truncated);
+    }
+    
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("json differs:");
+        for (JsonDiffOperation operation : operations) {
+            builder.append("\n  ").append(operation);
+        }
+        if (truncated) {
+            builder.append("\n  ...");
+        }
+        return builder.toString();
+    }
+    
+    private static JsonNode parse(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new JsonException(e);
+        }
+    }
+    
+    private static final class Walker {
+        
+        private final int limit;
+        private final List<JsonDiffOperation> operations = new ArrayList<>();
+        /* path segments are joined only when an operation is emitted */
+        private final Deque<String> path = new ArrayDeque<>();
+        private boolean truncated;
+        
+        private Walker(int limit) {
+            this.limit = limit;
+        }
+        
+        private void compare(JsonNode expected, JsonNode actual) {
+            if (truncated) {
+                return;
+            }
+            if (expected.getNodeType() != actual.getNodeType()) {
+                add(JsonDiffOperation.Kind.TYPE_CHANGED, expected, actual);
+            } else if (expected.isObject()) {
+                compareObjects(expected, actual);
+            } else if (expected.isArray()) {
+                compareArrays(expected, actual);
+            } else if (!sameValues(expected, actual)) {
+                add(JsonDiffOperation.Kind.CHANGED, expected, actual);
+            }
+        }
+        
+        private void compareObjects(JsonNode expected, JsonNode actual) {
+            Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+            while (fields.hasNext() && !truncated) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode actualValue = actual.get(field.getKey());
+                path.addLast(escape(field.getKey()));
+                if (actualValue == null) {
+                    add(JsonDiffOperation.Kind.MISSING, field.getValue(), null);
+                } else {
+                    compare(field.getValue(), actualValue);
+                }
+                path.removeLast();
+            }
+            Iterator<Map.Entry<String, JsonNode>> actualFields = actual.fields();
+            while (actualFields.hasNext() && !truncated) {
+                Map.Entry<String, JsonNode> field = actualFields.next();
+                if (!expected.has(field.getKey())) {
+                    path.addLast(escape(field.getKey()));
+                    add(JsonDiffOperation.Kind.EXTRA, null, field.getValue());
+                    path.removeLast();
+                }
+            }
+        }
+        
+        private void compareArrays(JsonNode expected, JsonNode actual) {
+            int common = Math.min(expected.size(), actual.size());
+            for (int i = 0; i < common && !truncated; i++) {
+                path.addLast(Integer.toString(i));
+                compare(expected.get(i), actual.get(i));
+                path.removeLast();
+            }
+            for (int i = common; i < expected.size() && !truncated; i++) {
+                path.addLast(Integer.toString(i));
+                add(JsonDiffOperation.Kind.MISSING, expected.get(i), null);
+                path.removeLast();
+            }
+            for (int i = common; i < actual.size() && !truncated; i++) {
+                path.addLast(Integer.toString(i));
+                add(JsonDiffOperation.Kind.EXTRA, null, actual.get(i));
+                path.removeLast();
+            }
+        }
+        
+        private boolean sameValues(JsonNode expected, JsonNode actual) {
+            if (expected.isNumber()) {
+                if (expected.isIntegralNumber() && actual.isIntegralNumber()) {
+                    return expected.bigIntegerValue().equals(actual.bigIntegerValue());
+                }
+                if (expected.isIntegralNumber() || actual.isIntegralNumber()) {
+                    return false;
+                }
+                if (expected.isBigDecimal() && actual.isBigDecimal()) {
+                    // scale is significant as 1.0 and 1.00 are different texts
+                    return expected.decimalValue().equals(actual.decimalValue());
+                }
+                // NaN and infinities
+                return Double.compare(expected.doubleValue(), actual.doubleValue()) == 0;
+            }
+            return expected.equals(actual);
+        }
+        
+        private void add(JsonDiffOperation.Kind kind, JsonNode expected, JsonNode actual) {
+            if (operations.size() == limit) {
+                truncated = true;
+                return;
+            }
+            operations.add(new JsonDiffOperation(kind, pointer(), expected, actual));
+        }
+        
+        private String pointer() {
+            StringBuilder builder = new StringBuilder();
+            for (String segment : path) {
+                builder.append('/').append(segment);
+            }
+            return builder.toString();
+        }
+        
+        private static String escape(String field) {
+            if (field.indexOf('~') < 0 && field.indexOf('/') < 0) {
+                return field;
+            }
+            return field.replace("~", "~0").replace("/", "~1");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.Locale;
+
+/**
+ * Single difference found by {@link JsonDiff}.
+ */
+@Value
+public class JsonDiffOperation {
+    
+    private static final int VALUE_LIMIT = 100;
+    
+    Kind kind;
+    /* JSON Pointer of the different value, empty for the root */
+    String path;
+    /* null for the extra values */
+    JsonNode expected;
+    /* null for the missing values */
+    JsonNode actual;
+    
+    /**
+     * Name of the RFC 6902 operation.
+     */
+    public String getOp() {
+        return kind.getOp();
+    }
+    
+    @Override
+    public String toString() {
+        String target = path.isEmpty() ? "<root>" : path;
+        switch (kind) {
+            case MISSING:
+                return "remove " + target + ": " + render(expected);
+            case EXTRA:
+                return "add " + target + ": " + render(actual);
+            case TYPE_CHANGED:
+                return "replace " + target + " (" + type(expected) + " -> " + type(actual) + "): "
+                        + render(expected) + " -> " + render(actual);
+            default:
+                return "replace " + target + ": " + render(expected) + " -> " + render(actual);
+        }
+    }
+    
+    private static String type(JsonNode node) {
+        return node.getNodeType().name().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String render(JsonNode node) {
+        String text = node.toString();
+        if (text.length() <= VALUE_LIMIT) {
+            return text;
+        }
+        return text.substring(0, VALUE_LIMIT) + "...";
+    }
+    
+    @AllArgsConstructor
+    public enum Kind {
+        CHANGED("replace"),
+        MISSING("remove"),
+        EXTRA("add"),
+        TYPE_CHANGED("replace");
+        
+        @Getter
+        private final String op;
+    }
+}
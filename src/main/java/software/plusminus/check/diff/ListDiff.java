@@ -0,0 +1,236 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.diff;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest edit script between two lists, given as fingerprints of their elements 
+ * (equal elements have equal fingerprints) or compared by a {@link Matcher}.
+ * Uses the O(ND) algorithm of Myers with the linear space refinement (the lists are split 
+ * at the middle snake of the edit path, as Hirschberg does for the LCS), so the time is proportional
+ * to the lists size multiplied by the number of differences and the memory to the number of differences.
+ * The search stops when the lists have more differences than the limit or when the number of the element
+ * comparisons exceeds a multiple of the lists size (many differences scattered over long lists).
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ListDiff {
+    
+    private static final int COMPARISONS_PER_ELEMENT = 16;
+    private static final int MIN_COMPARISONS = 100_000;
+    
+    /* runs of inserted, removed and changed elements in the lists order */
+    List<ListDiffOperation> operations;
+    
+    /**
+     * Finds the differences of the lists.
+     *
+     * @return the diff or {@code null} if there are more than {@code maxEdits} inserted and removed elements
+     */
+    public static ListDiff of(int[] expected, int[] actual, int maxEdits) {
+        return of(expected.length, actual.length, (e, a) -> expected[e] == actual[a], maxEdits);
+    }
+    
+    /**
+     * Finds the differences of the lists comparing their elements by indexes.
+     * Most of the comparisons are made between equal elements.
+     *
+     * @return the diff or {@code null} if there are more than {@code maxEdits} inserted and removed elements
+     *         or the comparisons limit is exceeded
+     */
+    public static ListDiff of(int expectedSize, int actualSize, Matcher matcher, int maxEdits) {
+        if (maxEdits < 1) {
+            throw new IllegalArgumentException("Max edits should be positive: " + maxEdits);
+        }
+        long comparisons = Math.max(MIN_COMPARISONS, COMPARISONS_PER_ELEMENT * ((long) expectedSize + actualSize));
+        Script script = new Script(matcher, maxEdits, comparisons);
+        if (!script.compare(0, expectedSize, 0, actualSize)) {
+            return null;
+        }
+        return new ListDiff(Collections.unmodifiableList(script.operations()));
+    }
+    
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("list differs:");
+        for (ListDiffOperation operation : operations) {
+            builder.append("\n  ").append(operation);
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * Equality of the elements of the expected and actual lists.
+     */
+    @FunctionalInterface
+    public interface Matcher {
+        
+        boolean matches(int expectedIndex, int actualIndex);
+    }
+    
+    private static final class Script {
+        
+        private final Matcher matcher;
+        private long comparisons;
+        /* inserted and removed elements which the whole script may still have */
+        private int remainingEdits;
+        private final int maxHalf;
+        private final int offset;
+        /* furthest reaching x of the forward and backward paths by diagonal */
+        private final int[] forward;
+        private final int[] backward;
+        private final List<int[]> edits = new ArrayList<>();
+        
+        private Script(Matcher matcher, int maxEdits, long comparisons) {
+            this.matcher = matcher;
+            this.comparisons = comparisons;
+            this.remainingEdits = maxEdits;
+            this.maxHalf = (maxEdits + 1) / 2;
+            this.offset = maxHalf + 1;
+            this.forward = new int[2 * maxHalf + 3];
+            this.backward = new int[2 * maxHalf + 3];
+        }
+        
+        /* returns false if the limit is exceeded */
+        private boolean compare(int aLow, int aHigh, int bLow, int bHigh) {
+            while (aLow < aHigh && bLow < bHigh && matches(aLow, bLow)) {
+                aLow++;
+                bLow++;
+            }
+            while (aLow < aHigh && bLow < bHigh && matches(aHigh - 1, bHigh - 1)) {
+                aHigh--;
+                bHigh--;
+            }
+            if (comparisons < 0) {
+                return false;
+            }
+            if (aLow == aHigh) {
+                return bLow == bHigh || edit(ListDiffOperation.Kind.INSERTED, aLow, bLow, bHigh - bLow);
+            }
+            if (bLow == bHigh) {
+                return edit(ListDiffOperation.Kind.REMOVED, aLow, bLow, aHigh - aLow);
+            }
+            int[] snake = middleSnake(aLow, aHigh, bLow, bHigh);
+            return snake != null && comparisons >= 0
+                    && compare(aLow, snake[0], bLow, snake[1]) 
+                    && compare(snake[2], aHigh, snake[3], bHigh);
+        }
+        
+        /* start and end of the diagonal in the middle of a shortest edit path */
+        private int[] middleSnake(int aLow, int aHigh, int bLow, int bHigh) {
+            int n = aHigh - aLow;
+            int m = bHigh - bLow;
+            int delta = n - m;
+            boolean odd = (delta & 1) != 0;
+            int half = (n + m + 1) / 2;
+            forward[offset + 1] = 0;
+            backward[offset + 1] = 0;
+            /* a sub-list with more edits than the whole script has left can't be part of the result */
+            int limit = Math.min(maxHalf, (remainingEdits + 1) / 2);
+            for (int d = 0; d <= half; d++) {
+                if (d > limit) {
+                    return null;
+                }
+                for (int k = -d; k <= d; k += 2) {
+                    int x = k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])
+                            ? forward[offset + k + 1]
+                            : forward[offset + k - 1] + 1;
+                    int y = x - k;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && matches(aLow + x, bLow + y)) {
+                        x++;
+                        y++;
+                    }
+                    forward[offset + k] = x;
+                    int reverse = delta - k;
+                    if (odd && reverse >= -(d - 1) && reverse <= d - 1 && x + backward[offset + reverse] >= n) {
+                        return new int[] {aLow + startX, bLow + startY, aLow + x, bLow + y};
+                    }
+                }
+                for (int k = -d; k <= d; k += 2) {
+                    int x = k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1])
+                            ? backward[offset + k + 1]
+                            : backward[offset + k - 1] + 1;
+                    int y = x - k;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && matches(aHigh - 1 - x, bHigh - 1 - y)) {
+                        x++;
+                        y++;
+                    }
+                    backward[offset + k] = x;
+                    int reverse = delta - k;
+                    if (!odd && reverse >= -d && reverse <= d && x + forward[offset + reverse] >= n) {
+                        return new int[] {aHigh - x, bHigh - y, aHigh - startX, bHigh - startY};
+                    }
+                }
+            }
+            return null;
+        }
+        
+        /* no element matches after the comparisons are exhausted, so the search ends quickly */
+        private boolean matches(int aIndex, int bIndex) {
+            return --comparisons >= 0 && matcher.matches(aIndex, bIndex);
+        }
+        
+        /* returns false if the script has more edits than the limit */
+        private boolean edit(ListDiffOperation.Kind kind, int aIndex, int bIndex, int count) {
+            remainingEdits -= count;
+            if (remainingEdits < 0) {
+                return false;
+            }
+            edits.add(new int[] {kind.ordinal(), aIndex, bIndex, count});
+            return true;
+        }
+        
+        /* merges the adjacent removals and insertions of the same size into changes */
+        private List<ListDiffOperation> operations() {
+            List<ListDiffOperation> operations = new ArrayList<>(edits.size());
+            ListDiffOperation.Kind[] kinds = ListDiffOperation.Kind.values();
+            for (int i = 0; i < edits.size(); i++) {
+                int[] edit = edits.get(i);
+                int[] next = i + 1 < edits.size() ? edits.get(i + 1) : null;
+                if (next != null && next[0] != edit[0] && next[3] == edit[3] && adjacent(edit, next)) {
+                    operations.add(new ListDiffOperation(ListDiffOperation.Kind.CHANGED, 
+                            Math.min(edit[1], next[1]), Math.min(edit[2], next[2]), edit[3]));
+                    i++;
+                } else {
+                    operations.add(new ListDiffOperation(kinds[edit[0]], edit[1], edit[2], edit[3]));
+                }
+            }
+            return operations;
+        }
+        
+        private static boolean adjacent(int[] first, int[] second) {
+            if (first[0] == ListDiffOperation.Kind.REMOVED.ordinal()) {
+                return second[1] == first[1] + first[3] && second[2] == first[2];
+            }
+            return second[1] == first[1] && second[2] == first[2] + first[3];
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.diff;
+
+import lombok.Value;
+
+/**
+ * Run of consecutive elements inserted, removed or changed, found by {@link ListDiff}.
+ */
+@Value
+public class ListDiffOperation {
+    
+    Kind kind;
+    /* index of the first removed or changed element in the expected list or of the insertion point */
+    int expectedIndex;
+    /* index of the first inserted or changed element in the actual list or of the removal point */
+    int actualIndex;
+    int count;
+    
+    @Override
+    public String toString() {
+        switch (kind) {
+            case INSERTED:
+                return "inserted at " + actualIndex + (count > 1 ? " (" + count + " elements)" : "");
+            case REMOVED:
+                return "removed at " + expectedIndex + (count > 1 ? " (" + count + " elements)" : "");
+            default:
+                return "changed at " + expectedIndex + (count > 1 ? " (" + count + " elements)" : "");
+        }
+    }
+    
+    public enum Kind {
+        /* present in the actual list only */
+        INSERTED,
+        /* present in the expected list only */
+        REMOVED,
+        /* replaced by the same number of other elements */
+        CHANGED
+    }
+}
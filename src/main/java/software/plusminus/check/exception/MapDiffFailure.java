@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.exception;
+
+import org.junit.ComparisonFailure;
+
+/**
+ * Map comparison failure which keeps the maps for the IDE diff viewer
+ * while the message lists the missing, extra and different keys.
+ */
+public class MapDiffFailure extends ComparisonFailure {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final String message;
+
+    public MapDiffFailure(String message, String expected, String actual) {
+        super("", expected, actual);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import software.plusminus.check.util.JsonMismatch;
+import software.plusminus.util.StreamUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Json engine which pretty prints with Gson while serializing, parsing and comparing with Jackson.
+ * Requires Gson on the classpath, selected with {@code -Dplusminus.check.json.engine=gson}.
+ */
+public class GsonJsonEngine implements JsonEngine {
+    
+    private final JacksonJsonEngine jackson;
+    private final Gson prettyMapper = new GsonBuilder().setPrettyPrinting().create();
+
+    public GsonJsonEngine() {
+        this(new JacksonJsonEngine());
+    }
+
+    public GsonJsonEngine(JacksonJsonEngine jackson) {
+        this.jackson = jackson;
+    }
+
+    @Override
+    public String serialize(Object object) {
+        return jackson.serialize(object);
+    }
+
+    @Override
+    public <T> T parse(String json, Class<T> type) {
+        return jackson.parse(json, type);
+    }
+
+    @Override
+    public String pretty(String json) {
+        if (!json.contains("{")) {
+            return json;
+        }
+        JsonElement jsonElement = JsonParser.parseString(json);
+        return prettyMapper.toJson(jsonElement);
+    }
+
+    @Override
+    public String prettyOrdered(String json, String baseJson) {
+        if (!json.contains("{")) {
+            return json;
+        }
+        JsonElement baseJsonElement = JsonParser.parseString(baseJson);
+        JsonElement targetJsonElement = JsonParser.parseString(json);
+        if (baseJsonElement.isJsonObject() && targetJsonElement.isJsonObject()) {
+            targetJsonElement = orderJsonObject(targetJsonElement.getAsJsonObject(),
+                    baseJsonElement.getAsJsonObject());
+        }
+        return prettyMapper.toJson(targetJsonElement);
+    }
+
+    @Override
+    public Optional<JsonMismatch> compare(String expected, String actual) {
+        return jackson.compare(expected, actual);
+    }
+
+    private JsonObject orderJsonObject(JsonObject target, JsonObject base) {
+        Map<String, JsonElement> baseFields = jsonObjectToMap(base);
+        Map<String, JsonElement> targetFields = jsonObjectToMap(target);
+        JsonObject result = new JsonObject();
+        for (Map.Entry<String, JsonElement> baseField : baseFields.entrySet()) {
+            JsonElement targetFieldElement = targetFields.get(baseField.getKey());
+            if (targetFieldElement != null) {
+                if (baseField.getValue().isJsonObject()
+                        && targetFieldElement.isJsonObject()) {
+                    targetFieldElement = orderJsonObject(targetFieldElement.getAsJsonObject(),
+                            baseField.getValue().getAsJsonObject());
+                }
+                result.add(baseField.getKey(), targetFieldElement);
+                targetFields.remove(baseField.getKey());
+            }
+        }
+        targetFields.forEach(result::add);
+        return result;
+    }
+    
+    private static Map<String, JsonElement> jsonObjectToMap(JsonObject jsonObject) {
+        return jsonObject.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
+                        StreamUtils.noDuplicatesMergeFunction(), LinkedHashMap::new));
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.plusminus.check.exception.JsonException;
+import software.plusminus.check.util.JsonComparator;
+import software.plusminus.check.util.JsonMismatch;
+import software.plusminus.check.util.JsonPrettyPrinter;
+import software.plusminus.check.util.JsonUtils;
+import software.plusminus.check.util.TextBuffers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Default json engine which uses only Jackson.
+ * Pretty printing keeps the original text of numbers and produces the same layout and escaping as Gson does.
+ * Unlike the lenient Gson parser, it accepts only json with comments, single quotes and unquoted field names.
+ */
+public class JacksonJsonEngine implements JsonEngine {
+    
+    private static final CharacterEscapes ESCAPES = new GsonEscapes();
+    
+    private final JsonFactory factory = JsonUtils.getLenientFactory();
+    private final Supplier<ObjectMapper> mapper;
+
+    /**
+     * Uses {@link JsonUtils#getObjectMapper()}, which is not created until an object is serialized or parsed.
+     */
+    public JacksonJsonEngine() {
+        this.mapper = JsonUtils::getObjectMapper;
+    }
+
+    public JacksonJsonEngine(ObjectMapper mapper) {
+        this.mapper = () -> mapper;
+    }
+
+    @Override
+    public String serialize(Object object) {
+        try {
+            return mapper.get().writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public <T> T parse(String json, Class<T> type) {
+        try {
+            return mapper.get().readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new JsonException(e);
+        }
+    }
+
+    @Override
+    public String pretty(String json) {
+        if (!json.contains("{")) {
+            return json;
+        }
+        return write(read(json), null);
+    }
+
+    @Override
+    public String prettyOrdered(String json, String baseJson) {
+        if (!json.contains("{")) {
+            return json;
+        }
+        Object target = read(json);
+        Object base = read(baseJson);
+        return write(target, target instanceof Map && base instanceof Map ? base : null);
+    }
+
+    @Override
+    public Optional<JsonMismatch> compare(String expected, String actual) {
+        return JsonComparator.compare(expected, actual);
+    }
+    
+    private Object read(String json) {
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.nextToken();
+            Object tree = read(parser);
+            if (parser.nextToken() != null) {
+                throw new JsonException(new IOException("Did not consume the entire document: " + json));
+            }
+            return tree;
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+
+    /* Objects are read into maps, arrays into lists and scalars keep their original text */
+    private Object read(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            Map<String, Object> object = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                object.put(name, read(parser));
+            }
+            return object;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            List<Object> array = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                array.add(read(parser));
+            }
+            return array;
+        }
+        if (token == null) {
+            throw new JsonException(new IOException("Unexpected end of json"));
+        }
+        return new Scalar(token, parser.getText());
+    }
+    
+    private String write(Object tree, Object base) {
+        TextBuffers.BufferWriter writer = TextBuffers.acquire();
+        try {
+            try (JsonGenerator generator = factory.createGenerator(writer)) {
+                generator.setCharacterEscapes(ESCAPES);
+                generator.setPrettyPrinter(new JsonPrettyPrinter());
+                write(generator, tree, base);
+            }
+            return writer.toString();
+        } catch (IOException e) {
+            throw new JsonException(e);
+        } finally {
+            TextBuffers.release(writer);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void write(JsonGenerator generator, Object tree, Object base) throws IOException {
+        if (tree instanceof Map) {
+            Map<String, Object> object = (Map<String, Object>) tree;
+            generator.writeStartObject();
+            if (base instanceof Map) {
+                Map<String, Object> baseObject = (Map<String, Object>) base;
+                for (Map.Entry<String, Object> baseField : baseObject.entrySet()) {
+                    if (object.containsKey(baseField.getKey())) {
+                        writeField(generator, baseField.getKey(), object.get(baseField.getKey()), 
+                                baseField.getValue());
+                    }
+                }
+                for (Map.Entry<String, Object> field : object.entrySet()) {
+                    if (!baseObject.containsKey(field.getKey())) {
+                        writeField(generator, field.getKey(), field.getValue(), null);
+                    }
+                }
+            } else {
+                for (Map.Entry<String, Object> field : object.entrySet()) {
+                    writeField(generator, field.getKey(), field.getValue(), null);
+                }
+            }
+            generator.writeEndObject();
+        } else if (tree instanceof List) {
+            generator.writeStartArray();
+            for (Object element : (List<Object>) tree) {
+                write(generator, element, null);
+            }
+            generator.writeEndArray();
+        } else {
+            ((Scalar) tree).write(generator);
+        }
+    }
+    
+    private void writeField(JsonGenerator generator, String name, Object value, Object base) throws IOException {
+        if (value instanceof Scalar && ((Scalar) value).token == JsonToken.VALUE_NULL) {
+            return;
+        }
+        generator.writeFieldName(name);
+        write(generator, value, value instanceof Map && base instanceof Map ? base : null);
+    }
+
+    /**
+     * Json value which is neither object nor array.
+     */
+    private static final class Scalar {
+        
+        private final JsonToken token;
+        private final String text;
+
+        private Scalar(JsonToken token, String text) {
+            this.token = token;
+            this.text = text;
+        }
+        
+        private void write(JsonGenerator generator) throws IOException {
+            switch (token) {
+                case VALUE_STRING:
+                    generator.writeString(text);
+                    break;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    generator.writeNumber(text);
+                    break;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    generator.writeBoolean(token == JsonToken.VALUE_TRUE);
+                    break;
+                default:
+                    generator.writeNull();
+            }
+        }
+    }
+    
+    /**
+     * Escapes the same characters as Gson does by default: the html characters, the line and paragraph separators
+     * and the control characters (in lower case hex).
+     */
+    private static final class GsonEscapes extends CharacterEscapes {
+        
+        private static final long serialVersionUID = 1L;
+        private static final String HTML_CHARS = "<>&='";
+        
+        private final int[] codes = standardAsciiEscapesForJSON();
+        private final SerializableString[] sequences = new SerializableString[128];
+
+        private GsonEscapes() {
+            for (int c = 0; c < codes.length; c++) {
+                if (codes[c] == ESCAPE_STANDARD || HTML_CHARS.indexOf(c) >= 0) {
+                    codes[c] = ESCAPE_CUSTOM;
+                    sequences[c] = unicode(c);
+                }
+            }
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii() {
+            return codes;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(int ch) {
+            if (ch < sequences.length) {
+                return sequences[ch];
+            }
+            return ch == 0x2028 || ch == 0x2029 ? unicode(ch) : null;
+        }
+        
+        private static SerializableString unicode(int ch) {
+            return new SerializedString(String.format("\\u%04x", ch));
+        }
+    }
+}
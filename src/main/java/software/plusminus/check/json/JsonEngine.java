@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.json;
+
+import software.plusminus.check.util.JsonMismatch;
+
+import java.util.Optional;
+
+/**
+ * Json library used by the checkers.
+ * The engine is chosen once by {@link software.plusminus.check.util.JsonUtils}: 
+ * the class name (or {@code jackson}, {@code gson}) from the {@code plusminus.check.json.engine} system property,
+ * otherwise the first engine registered for {@link java.util.ServiceLoader},
+ * otherwise {@link JacksonJsonEngine}.
+ * Implementations must be thread-safe.
+ */
+public interface JsonEngine {
+    
+    String serialize(Object object);
+    
+    <T> T parse(String json, Class<T> type);
+
+    /**
+     * Pretty prints the json with two spaces indentation, omitting the object fields with null values.
+     * Strings which do not contain json objects are returned as is.
+     */
+    String pretty(String json);
+
+    /**
+     * Pretty prints the json ordering the fields of its objects the same way as in the base json.
+     */
+    String prettyOrdered(String json, String baseJson);
+
+    /**
+     * Compares two json documents, the fields order and the number formats are significant.
+     *
+     * @return the first difference or empty Optional if the documents are equal
+     */
+    Optional<JsonMismatch> compare(String expected, String actual);
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of a json comparison made by a checker.
+ */
+@Name("software.plusminus.check.Check")
+@Label("Check")
+@Category("Plusminus Check")
+@Description("Comparison of the expected and actual jsons")
+public class CheckEvent extends jdk.jfr.Event {
+    
+    public static final String PASSED = "passed";
+    public static final String FAILED = "failed";
+    /** Not a strict json, compared by the lenient pretty printer. */
+    public static final String LENIENT = "lenient";
+    
+    @Label("Checker")
+    public Class<?> checker;
+    
+    @Label("Expected Chars")
+    @Description("Number of chars of the expected json")
+    public long expectedChars;
+    
+    @Label("Actual Chars")
+    @Description("Number of chars of the actual json")
+    public long actualChars;
+    
+    @Label("Outcome")
+    public String outcome;
+
+    /* only asks whether the event is enabled, so nothing is allocated while there is no recording */
+    private static final CheckEvent PROBE = new CheckEvent();
+    
+    /**
+     * Returns the begun event or {@code null} if the event is not enabled.
+     */
+    public static CheckEvent beginIfEnabled() {
+        if (!PROBE.isEnabled()) {
+            return null;
+        }
+        CheckEvent event = new CheckEvent();
+        event.begin();
+        return event;
+    }
+}
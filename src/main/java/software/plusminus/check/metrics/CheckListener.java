@@ -0,0 +1,36 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+/**
+ * Receives the timings of the check phases.
+ * Listeners are registered with {@link Instrumentation#addListener(CheckListener)} 
+ * or for {@link java.util.ServiceLoader}. Without listeners the phases are not timed at all.
+ * Implementations must be thread-safe.
+ */
+public interface CheckListener {
+
+    /**
+     * Called when a phase is completed.
+     *
+     * @param phase the completed phase
+     * @param checker the outermost checker class or {@code null} if the phase was not run by a checker
+     * @param site the code which called the checker or {@code null} if it is unknown
+     * @param nanos duration of the phase without the phases nested in it
+     * @param chars size of the processed or produced json in chars
+     */
+    void phaseCompleted(CheckPhase phase, Class<?> checker, StackTraceElement site, long nanos, long chars);
+}
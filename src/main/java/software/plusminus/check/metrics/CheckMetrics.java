@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+import lombok.Value;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * In-process registry of the check phase timings per checker type and call site.
+ */
+public class CheckMetrics implements CheckListener {
+    
+    private static final String UNKNOWN = "<unknown>";
+    private static final CheckMetrics DEFAULT = new CheckMetrics();
+    
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+    
+    /**
+     * Returns the registry used by {@link SlowestChecksListener}.
+     */
+    public static CheckMetrics getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public void phaseCompleted(CheckPhase phase, Class<?> checker, StackTraceElement site, long nanos, long chars) {
+        Key key = new Key(phase, 
+                checker == null ? UNKNOWN : checker.getSimpleName(), 
+                site == null ? UNKNOWN : site.toString());
+        Stats phaseStats = stats.computeIfAbsent(key, k -> new Stats());
+        phaseStats.count.increment();
+        phaseStats.nanos.add(nanos);
+        phaseStats.chars.add(chars);
+    }
+    
+    /**
+     * Returns the totals of the call sites sorted by their total time, the slowest first.
+     */
+    public List<SiteMetrics> slowestSites(int limit) {
+        Map<String, SiteTotals> sites = new HashMap<>();
+        stats.forEach((key, value) -> {
+            SiteTotals site = sites.computeIfAbsent(key.site, s -> new SiteTotals(key.checker));
+            long nanos = value.nanos.sum();
+            site.phaseNanos.merge(key.phase, nanos, Long::sum);
+            site.count += value.count.sum();
+            site.nanos += nanos;
+            site.chars += value.chars.sum();
+        });
+        return sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, SiteTotals> e) -> e.getValue().nanos).reversed())
+                .limit(limit)
+                .map(e -> new SiteMetrics(e.getKey(), e.getValue().checker, e.getValue().count, 
+                        e.getValue().nanos, e.getValue().chars, e.getValue().phaseNanos))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Returns the total time of the phase (all checkers and sites) in nanoseconds.
+     */
+    public long getNanos(CheckPhase phase) {
+        return stats.entrySet().stream()
+                .filter(e -> e.getKey().phase == phase)
+                .mapToLong(e -> e.getValue().nanos.sum())
+                .sum();
+    }
+    
+    /**
+     * Returns the number of serialized json chars.
+     */
+    public long getSerializedChars() {
+        return stats.entrySet().stream()
+                .filter(e -> e.getKey().phase == CheckPhase.SERIALIZE)
+                .mapToLong(e -> e.getValue().chars.sum())
+                .sum();
+    }
+    
+    /**
+     * Formats the slowest call sites, one per line.
+     */
+    public String report(int limit) {
+        StringBuilder report = new StringBuilder("Slowest check sites:");
+        for (SiteMetrics site : slowestSites(limit)) {
+            report.append(String.format("%n%10.1f ms %6d phases %10d chars  %s %s %s", 
+                    site.getNanos() / 1e6, site.getCount(), site.getChars(), 
+                    site.getChecker(), site.getSite(), phases(site)));
+        }
+        return report.toString();
+    }
+    
+    public void reset() {
+        stats.clear();
+    }
+    
+    private static String phases(SiteMetrics site) {
+        StringBuilder phases = new StringBuilder("[");
+        site.getPhaseNanos().forEach((phase, nanos) -> {
+            if (phases.length() > 1) {
+                phases.append(", ");
+            }
+            phases.append(phase.name().toLowerCase(Locale.ROOT)).append(' ').append(String.format("%.1f ms", nanos / 1e6));
+        });
+        return phases.append(']').toString();
+    }
+    
+    /**
+     * Totals of a call site. The checker is one of the checkers called from the site.
+     */
+    @Value
+    public static class SiteMetrics {
+        String site;
+        String checker;
+        /* number of timed phases */
+        long count;
+        long nanos;
+        long chars;
+        Map<CheckPhase, Long> phaseNanos;
+    }
+    
+    @Value
+    private static class Key {
+        CheckPhase phase;
+        String checker;
+        String site;
+    }
+    
+    private static final class SiteTotals {
+        private final String checker;
+        private final Map<CheckPhase, Long> phaseNanos = new EnumMap<>(CheckPhase.class);
+        private long count;
+        private long nanos;
+        private long chars;
+
+        private SiteTotals(String checker) {
+            this.checker = checker;
+        }
+    }
+    
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder chars = new LongAdder();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+/**
+ * Timed phase of a check.
+ */
+public enum CheckPhase {
+    /** Conversion of objects to json. */
+    SERIALIZE,
+    /** Parsing of json to objects or trees. */
+    PARSE,
+    /** Pretty printing of json. */
+    PRETTY,
+    /** Comparison of json documents. */
+    COMPARE,
+    /** Creation of the failure of a failed check, including the pretty printing of the shown documents. */
+    RENDER_FAILURE,
+    /** Loading of a fixture from the archive or the classpath. */
+    FIXTURE_LOAD
+}
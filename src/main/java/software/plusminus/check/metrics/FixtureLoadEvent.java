@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of loading a fixture which was not cached yet.
+ */
+@Name("software.plusminus.check.FixtureLoad")
+@Label("Fixture Load")
+@Category("Plusminus Check")
+@Description("Loading of a fixture from the fixtures archive or the classpath")
+public class FixtureLoadEvent extends jdk.jfr.Event {
+    
+    public static final String ARCHIVE = "archive";
+    public static final String RESOURCE = "resource";
+    public static final String MISSING = "missing";
+    
+    @Label("Checker")
+    @Description("Outermost checker on the stack, if any")
+    public Class<?> checker;
+    
+    @Label("Path")
+    public String path;
+    
+    @Label("Chars")
+    @Description("Number of chars of the fixture")
+    public long chars;
+    
+    @Label("Source")
+    public String source;
+
+    /* only asks whether the event is enabled, so nothing is allocated while there is no recording */
+    private static final FixtureLoadEvent PROBE = new FixtureLoadEvent();
+    
+    /**
+     * Returns the begun event or {@code null} if the event is not enabled.
+     */
+    public static FixtureLoadEvent beginIfEnabled() {
+        if (!PROBE.isEnabled()) {
+            return null;
+        }
+        FixtureLoadEvent event = new FixtureLoadEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+import lombok.experimental.UtilityClass;
+import software.plusminus.check.AbstractCheck;
+
+import java.security.CodeSource;
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Times the check phases and notifies the {@link CheckListener}s.
+ * The phases are timed with a pair of calls:
+ * <pre>
+ * long start = Instrumentation.start();
+ * ...
+ * Instrumentation.end(CheckPhase.PRETTY, start, json.length());
+ * </pre>
+ * Without listeners {@code start()} returns 0 and {@code end()} does nothing, 
+ * otherwise the checker and the call site are found by walking the stack.
+ * The listeners receive the exclusive time of a phase: the phases nested in it (e.g. pretty printing
+ * while rendering a failure) are excluded, so the phase times of a call site can be summed up.
+ */
+@UtilityClass
+public class Instrumentation {
+    
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final String LIBRARY_PACKAGE = "software.plusminus.check.";
+    private static final CodeSource LIBRARY_SOURCE = AbstractCheck.class.getProtectionDomain().getCodeSource();
+    
+    private final List<CheckListener> listeners = new CopyOnWriteArrayList<>();
+    /* exclusive time of the phases completed by the thread, which stops the phase clock of the enclosing phases */
+    private final ThreadLocal<long[]> completed = ThreadLocal.withInitial(() -> new long[1]);
+    private volatile boolean active;
+    
+    static {
+        ServiceLoader.load(CheckListener.class).forEach(listeners::add);
+        active = !listeners.isEmpty();
+    }
+    
+    public void addListener(CheckListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        active = true;
+    }
+    
+    public void removeListener(CheckListener listener) {
+        listeners.remove(listener);
+        active = !listeners.isEmpty();
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    /**
+     * Returns the start time of a phase or 0 if there are no listeners.
+     */
+    public long start() {
+        return active ? clock(completed.get()) : 0;
+    }
+    
+    public void end(CheckPhase phase, long start, long chars) {
+        if (start == 0) {
+            return;
+        }
+        long[] completedNanos = completed.get();
+        long nanos = clock(completedNanos) - start;
+        completedNanos[0] += nanos;
+        Location location = locate();
+        for (CheckListener listener : listeners) {
+            listener.phaseCompleted(phase, location.checker, location.site, nanos, chars);
+        }
+    }
+    
+    /**
+     * Returns the outermost checker on the stack or {@code null} if the code is not called by a checker.
+     */
+    public Class<?> currentChecker() {
+        return locate().checker;
+    }
+    
+    /* the clock of the thread which does not run while the nested phases run */
+    private long clock(long[] completedNanos) {
+        return System.nanoTime() - completedNanos[0];
+    }
+    
+    private Location locate() {
+        return WALKER.walk(frames -> {
+            Location found = new Location();
+            frames.forEach(found::visit);
+            return found;
+        });
+    }
+    
+    /**
+     * Outermost checker on the stack and the frame which called it.
+     */
+    private static final class Location {
+        
+        private Class<?> checker;
+        private StackTraceElement site;
+        
+        void visit(StackWalker.StackFrame frame) {
+            Class<?> type = frame.getDeclaringClass();
+            if (AbstractCheck.class.isAssignableFrom(type)) {
+                checker = type;
+                site = null;
+            } else if (site == null && !isLibrary(type)) {
+                site = frame.toStackTraceElement();
+            }
+        }
+        
+        /* the library classes come from the jar (or the classes directory) of the checkers, unlike its tests */
+        private static boolean isLibrary(Class<?> type) {
+            return type.getName().startsWith(LIBRARY_PACKAGE)
+                    && Objects.equals(codeSource(type), LIBRARY_SOURCE);
+        }
+        
+        private static CodeSource codeSource(Class<?> type) {
+            return type.getProtectionDomain().getCodeSource();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of the serialization or pretty printing of a json.
+ */
+@Name("software.plusminus.check.JsonSerialize")
+@Label("Json Serialize")
+@Category("Plusminus Check")
+@Description("Serialization of an object or pretty printing of a json")
+public class JsonSerializeEvent extends jdk.jfr.Event {
+    
+    public static final String SERIALIZE = "serialize";
+    public static final String PRETTY = "pretty";
+    public static final String PRETTY_ORDERED = "pretty ordered";
+    
+    /** The graph has no circular references. */
+    public static final String NO_CYCLES = "none";
+    /** The graph has circular references and is serialized again by the Jsog mapper. */
+    public static final String JSOG_FALLBACK = "jsog";
+    
+    @Label("Checker")
+    @Description("Outermost checker on the stack, if any")
+    public Class<?> checker;
+    
+    @Label("Operation")
+    public String operation;
+    
+    @Label("Type")
+    @Description("Class of the serialized object")
+    public Class<?> type;
+    
+    @Label("Chars")
+    @Description("Number of chars of the json")
+    public long chars;
+    
+    @Label("Cycles")
+    @Description("How the circular references were serialized")
+    public String cycles;
+
+    /* only asks whether the event is enabled, so nothing is allocated while there is no recording */
+    private static final JsonSerializeEvent PROBE = new JsonSerializeEvent();
+    
+    /**
+     * Returns the begun event or {@code null} if the event is not enabled.
+     */
+    public static JsonSerializeEvent beginIfEnabled() {
+        if (!PROBE.isEnabled()) {
+            return null;
+        }
+        JsonSerializeEvent event = new JsonSerializeEvent();
+        event.begin();
+        return event;
+    }
+}
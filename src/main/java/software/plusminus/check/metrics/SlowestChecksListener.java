@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * JUnit listener which collects the check metrics during the run and prints the slowest check sites at its end.
+ * The number of printed sites is set with {@code -Dplusminus.check.metrics.top} (10 by default).
+ * With Maven Surefire it is registered by the {@code listener} property of the plugin configuration.
+ */
+@RunListener.ThreadSafe
+public class SlowestChecksListener extends RunListener {
+    
+    private static final String TOP_PROPERTY = "plusminus.check.metrics.top";
+    private static final int DEFAULT_TOP = 10;
+
+    @Override
+    public void testRunStarted(Description description) {
+        Instrumentation.addListener(CheckMetrics.getDefault());
+    }
+
+    @Override
+    public void testRunFinished(Result result) {
+        System.out.println(CheckMetrics.getDefault().report(Integer.getInteger(TOP_PROPERTY, DEFAULT_TOP)));
+    }
+}
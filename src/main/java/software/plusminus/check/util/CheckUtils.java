@@ -16,8 +16,9 @@
 package software.plusminus.check.util;
 
 import lombok.experimental.UtilityClass;
+import software.plusminus.check.metrics.CheckPhase;
+import software.plusminus.check.metrics.Instrumentation;
 import software.plusminus.util.ClassUtils;
-import software.plusminus.util.ObjectUtils;
 
 /**
  * Utility class with helper methods for checking.
@@ -35,9 +36,9 @@ public class CheckUtils {
     }
     
     public String toJson(Object object) {
-        if (ObjectUtils.containsCircularReferences(object)) {
-            return JsonUtils.toJsog(object);
-        }
-        return JsonUtils.toJson(object);
+        long start = Instrumentation.start();
+        String json = JsonUtils.toCycleAwareJson(object);
+        Instrumentation.end(CheckPhase.SERIALIZE, start, json.length());
+        return json;
     }
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import software.plusminus.check.metrics.JsonSerializeEvent;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Serializes object graphs in a single pass while tracking the beans on the current path,
+ * so the graph is not walked beforehand to find out whether it has circular references.
+ * Graphs without circular references produce exactly the same output as the plain serialization.
+ * The pass stops at the first bean which is met again inside its own subtree: such graphs are serialized
+ * by the Jsog mapper, which writes the identifiers and references itself.
+ */
+class CycleAwareSerializer extends BeanSerializerModifier {
+    
+    private static final long serialVersionUID = 1L;
+    private static final Object STATE = CycleAwareSerializer.class;
+
+    /**
+     * Returns the json of the object or {@code null} if the graph has circular references.
+     */
+    static String serialize(ObjectMapper mapper, Object object) throws IOException {
+        return serialize(mapper, object, null);
+    }
+    
+    /**
+     * Same as {@link #serialize(ObjectMapper, Object)}, which also tells the event that the graph
+     * has no circular references.
+     */
+    static String serialize(ObjectMapper mapper, Object object, JsonSerializeEvent event) throws IOException {
+        State state = new State();
+        TextBuffers.BufferWriter writer = TextBuffers.acquire();
+        try {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+                mapper.writer()
+                        .withAttribute(STATE, state)
+                        .writeValue(generator, object);
+            }
+            if (event != null) {
+                event.cycles = JsonSerializeEvent.NO_CYCLES;
+            }
+            return writer.toString();
+        } catch (IOException e) {
+            // the exception may be wrapped by the serializers of the enclosing objects
+            if (state.circular) {
+                return null;
+            }
+            throw e;
+        } finally {
+            TextBuffers.release(writer);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                              JsonSerializer<?> serializer) {
+        return wrap(serializer);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static JsonSerializer<?> wrap(JsonSerializer<?> serializer) {
+        if (serializer instanceof BeanSerializerBase) {
+            return new TrackingSerializer((JsonSerializer<Object>) serializer);
+        }
+        return serializer;
+    }
+
+    /**
+     * Bean serializer decorator which stops the serialization instead of entering a cycle.
+     */
+    private static class TrackingSerializer extends JsonSerializer<Object> 
+            implements ContextualSerializer, ResolvableSerializer {
+        
+        private final JsonSerializer<Object> delegate;
+
+        TrackingSerializer(JsonSerializer<Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator generator, SerializerProvider provider) 
+                throws IOException {
+            State state = state(provider);
+            if (state == null) {
+                delegate.serialize(value, generator, provider);
+                return;
+            }
+            state.enter(value);
+            try {
+                delegate.serialize(value, generator, provider);
+            } finally {
+                state.exit();
+            }
+        }
+
+        @Override
+        public void serializeWithType(Object value, JsonGenerator generator, SerializerProvider provider,
+                                      TypeSerializer typeSerializer) throws IOException {
+            State state = state(provider);
+            if (state == null) {
+                delegate.serializeWithType(value, generator, provider, typeSerializer);
+                return;
+            }
+            state.enter(value);
+            try {
+                delegate.serializeWithType(value, generator, provider, typeSerializer);
+            } finally {
+                state.exit();
+            }
+        }
+        
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) 
+                throws JsonMappingException {
+            if (!(delegate instanceof ContextualSerializer)) {
+                return this;
+            }
+            JsonSerializer<?> contextual = ((ContextualSerializer) delegate).createContextual(provider, property);
+            return contextual == delegate ? this : wrap(contextual);
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer) {
+                ((ResolvableSerializer) delegate).resolve(provider);
+            }
+        }
+
+        @Override
+        public JsonSerializer<Object> unwrappingSerializer(NameTransformer unwrapper) {
+            return delegate.unwrappingSerializer(unwrapper);
+        }
+
+        @Override
+        public JsonSerializer<?> withFilterId(Object filterId) {
+            return wrap(delegate.withFilterId(filterId));
+        }
+
+        @Override
+        public boolean isUnwrappingSerializer() {
+            return delegate.isUnwrappingSerializer();
+        }
+
+        @Override
+        public boolean usesObjectId() {
+            return delegate.usesObjectId();
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, Object value) {
+            return delegate.isEmpty(provider, value);
+        }
+
+        @Override
+        public Class<Object> handledType() {
+            return delegate.handledType();
+        }
+
+        @Override
+        public Iterator<PropertyWriter> properties() {
+            return delegate.properties();
+        }
+
+        @Override
+        public JsonSerializer<?> getDelegatee() {
+            return delegate;
+        }
+
+        @Override
+        public void acceptJsonFormatVisitor(JsonFormatVisitorWrapper visitor, JavaType type) 
+                throws JsonMappingException {
+            delegate.acceptJsonFormatVisitor(visitor, type);
+        }
+        
+        private State state(SerializerProvider provider) {
+            if (delegate.usesObjectId()) {
+                // the bean has its own identity handling
+                return null;
+            }
+            return (State) provider.getAttribute(STATE);
+        }
+    }
+
+    /**
+     * Beans on the current path of a single serialization.
+     */
+    private static final class State {
+        
+        private Object[] path = new Object[16];
+        private int depth;
+        private boolean circular;
+        
+        void enter(Object value) throws IOException {
+            for (int i = depth - 1; i >= 0; i--) {
+                if (path[i] == value) {
+                    circular = true;
+                    throw new CircularReferenceException();
+                }
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = value;
+        }
+        
+        void exit() {
+            path[--depth] = null;
+        }
+    }
+    
+    /**
+     * Stops the serialization of a graph with circular references. 
+     * An IOException, so the serializers of the enclosing objects rethrow it as is.
+     */
+    private static final class CircularReferenceException extends IOException {
+        
+        private static final long serialVersionUID = 1L;
+
+        CircularReferenceException() {
+            super("Circular reference");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Indexed archive of the fixtures packed at build time, so a test run does not make a classpath lookup
+ * and a file read per fixture. {@link FixtureCache} looks a fixture up in the default archive first:
+ * the file from the {@code plusminus.check.fixtures.archive} system property or the {@value #RESOURCE} resource.
+ * Archives on the file system are memory-mapped. The archive is built with {@link #main(String[])}.
+ * While the packed directory exists, an entry whose file has changed (size or modification time) or was deleted
+ * since packing is skipped, so edited and re-recorded fixtures are never shadowed by their stale copies.
+ * <p>
+ * Format: magic, version, the packed directory and the number of entries,
+ * then the index (UTF-8 path, offset, length and modification time of every text), then the UTF-8 texts.
+ */
+public final class FixtureArchive {
+    
+    public static final String RESOURCE = "META-INF/plusminus-check/fixtures.idx";
+    
+    private static final String ARCHIVE_PROPERTY = "plusminus.check.fixtures.archive";
+    private static final int MAGIC = 0x504d4658;
+    private static final int VERSION = 2;
+    private static final FixtureArchive EMPTY = 
+            new FixtureArchive(null, ByteBuffer.allocate(0), Collections.emptyMap());
+    
+    /* the packed directory or null if it does not exist here, e.g. for an archive built elsewhere */
+    private final Path directory;
+    private final ByteBuffer texts;
+    /* path to the offset, the length and the modification time of the text */
+    private final Map<String, long[]> index;
+
+    private FixtureArchive(Path directory, ByteBuffer texts, Map<String, long[]> index) {
+        this.directory = directory;
+        this.texts = texts;
+        this.index = index;
+    }
+    
+    /**
+     * Returns the default archive, which is empty if there is no archive.
+     */
+    public static FixtureArchive getDefault() {
+        return DefaultHolder.ARCHIVE;
+    }
+    
+    public static FixtureArchive open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    public static FixtureArchive read(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) > 0) {
+            bytes.write(buffer, 0, read);
+        }
+        return read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+    
+    /**
+     * Returns the text of the fixture or {@code null} if the archive does not contain it or the entry is stale.
+     */
+    public String get(String path) {
+        long[] entry = index.get(path);
+        if (entry == null || isStale(path, entry)) {
+            return null;
+        }
+        byte[] text = new byte[(int) entry[1]];
+        ByteBuffer source = texts.duplicate();
+        source.position((int) entry[0]);
+        source.get(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+    
+    public boolean contains(String path) {
+        long[] entry = index.get(path);
+        return entry != null && !isStale(path, entry);
+    }
+    
+    public int size() {
+        return index.size();
+    }
+    
+    /**
+     * Packs the files of the directory which match the glob pattern (all files if it is {@code null}).
+     * The paths in the archive are relative to the directory, as the classpath resource names.
+     */
+    public static void write(Path directory, String glob, Path archive) throws IOException {
+        PathMatcher matcher = glob == null ? path -> true 
+                : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        Path target = archive.toAbsolutePath().normalize();
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(directory.relativize(path)))
+                    .filter(path -> !path.toAbsolutePath().normalize().equals(target))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        DataOutputStream index = new DataOutputStream(indexBytes);
+        long offset = 0;
+        for (Path file : files) {
+            long size = Files.size(file);
+            writeString(index, directory.relativize(file).toString().replace('\\', '/'));
+            index.writeLong(offset);
+            index.writeLong(size);
+            index.writeLong(Files.getLastModifiedTime(file).toMillis());
+            offset += size;
+        }
+        Path parent = archive.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream stream = Files.newOutputStream(archive)) {
+            DataOutputStream output = new DataOutputStream(stream);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            writeString(output, directory.toAbsolutePath().normalize().toString());
+            output.writeInt(files.size());
+            indexBytes.writeTo(output);
+            for (Path file : files) {
+                Files.copy(file, output);
+            }
+            output.flush();
+        }
+    }
+    
+    /**
+     * Build step: {@code FixtureArchive <resources directory> <archive file> [glob]}, e.g.
+     * {@code FixtureArchive src/test/resources target/test-classes/META-INF/plusminus-check/fixtures.idx **.json}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: FixtureArchive <resources directory> <archive file> [glob]");
+        }
+        write(Paths.get(args[0]), args.length > 2 ? args[2] : null, Paths.get(args[1]));
+    }
+    
+    private static FixtureArchive read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a fixture archive");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported fixture archive version " + version);
+        }
+        Path directory = Paths.get(readString(buffer));
+        int count = buffer.getInt();
+        Map<String, long[]> index = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            index.put(readString(buffer), new long[] {buffer.getLong(), buffer.getLong(), buffer.getLong()});
+        }
+        return new FixtureArchive(Files.isDirectory(directory) ? directory : null, buffer.slice(), index);
+    }
+    
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /* the file was changed or deleted after packing, e.g. edited by hand or re-recorded */
+    private boolean isStale(String path, long[] entry) {
+        if (directory == null) {
+            return false;
+        }
+        Path file = directory.resolve(path);
+        try {
+            return Files.size(file) != entry[1] || Files.getLastModifiedTime(file).toMillis() != entry[2];
+        } catch (IOException e) {
+            return true;
+        }
+    }
+    
+    private static FixtureArchive load() {
+        try {
+            String file = System.getProperty(ARCHIVE_PROPERTY);
+            if (file != null) {
+                return open(Paths.get(file));
+            }
+            URL resource = FixtureArchive.class.getClassLoader().getResource(RESOURCE);
+            if (resource == null) {
+                return EMPTY;
+            }
+            if ("file".equals(resource.getProtocol())) {
+                return open(Paths.get(resource.toURI()));
+            }
+            try (InputStream stream = resource.openStream()) {
+                return read(stream);
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("Can't read the fixture archive", e);
+        }
+    }
+    
+    private static final class DefaultHolder {
+        private static final FixtureArchive ARCHIVE = load();
+    }
+}
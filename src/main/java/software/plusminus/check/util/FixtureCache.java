@@ -0,0 +1,249 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.experimental.UtilityClass;
+import software.plusminus.check.metrics.CheckPhase;
+import software.plusminus.check.metrics.FixtureLoadEvent;
+import software.plusminus.check.metrics.Instrumentation;
+import software.plusminus.util.ResourceUtils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache of the fixtures loaded from the {@link FixtureArchive} or the classpath resources.
+ * Keeps the text of each fixture together with its lazily parsed json tree
+ * and evicts the least recently used fixtures once the estimated size exceeds
+ * {@code plusminus.check.fixtures.cache.bytes} (64 MB by default). Safe for concurrent use.
+ */
+@UtilityClass
+public class FixtureCache {
+    
+    private static final String MAX_BYTES_PROPERTY = "plusminus.check.fixtures.cache.bytes";
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    /* a parsed tree usually takes several times more memory than the text */
+    private static final int TREE_BYTES_PER_CHAR = 8;
+
+    private final Map<String, Fixture> fixtures = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long maxBytes = Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES);
+    private long bytes;
+
+    /**
+     * Returns the text of the fixture if the path points to a resource or the path itself otherwise.
+     */
+    public String resolve(String path) {
+        Fixture fixture = get(path);
+        return fixture == null ? path : fixture.getText();
+    }
+    
+    /**
+     * Returns the fixture or {@code null} if the path does not point to a resource.
+     */
+    public Fixture get(String path) {
+        if (!mayBeResource(path)) {
+            return null;
+        }
+        Fixture fixture;
+        synchronized (fixtures) {
+            fixture = fixtures.get(path);
+        }
+        if (fixture != null) {
+            hits.increment();
+            return fixture;
+        }
+        // while recording the cache also keeps the snapshots which are not on the classpath yet
+        if (!Snapshots.isRecording() && !exists(path)) {
+            return null;
+        }
+        String text = load(path);
+        if (text == null) {
+            return null;
+        }
+        misses.increment();
+        fixture = new Fixture(path, text);
+        synchronized (fixtures) {
+            Fixture previous = fixtures.putIfAbsent(path, fixture);
+            if (previous == null) {
+                bytes += fixture.weight;
+                evict();
+            } else {
+                fixture = previous;
+            }
+        }
+        return fixture;
+    }
+    
+    /**
+     * Replaces the text of the fixture, e.g. by a recorded snapshot.
+     */
+    public void put(String path, String text) {
+        Fixture fixture = new Fixture(path, text);
+        synchronized (fixtures) {
+            Fixture previous = fixtures.put(path, fixture);
+            if (previous != null) {
+                bytes -= previous.weight;
+            }
+            bytes += fixture.weight;
+            evict();
+        }
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    public long getBytes() {
+        synchronized (fixtures) {
+            return bytes;
+        }
+    }
+    
+    public int size() {
+        synchronized (fixtures) {
+            return fixtures.size();
+        }
+    }
+    
+    public void setMaxBytes(long maxBytes) {
+        synchronized (fixtures) {
+            FixtureCache.maxBytes = maxBytes;
+            evict();
+        }
+    }
+    
+    public void clear() {
+        synchronized (fixtures) {
+            fixtures.clear();
+            bytes = 0;
+        }
+        hits.reset();
+        misses.reset();
+    }
+    
+    /* the archive is skipped while recording as the snapshots are changed by the run itself */
+    private String load(String path) {
+        FixtureLoadEvent event = FixtureLoadEvent.beginIfEnabled();
+        long start = Instrumentation.start();
+        String source = FixtureLoadEvent.MISSING;
+        String text = null;
+        if (!Snapshots.isRecording()) {
+            text = FixtureArchive.getDefault().get(path);
+            source = FixtureLoadEvent.ARCHIVE;
+        }
+        if (text == null && ResourceUtils.isResource(path)) {
+            text = ResourceUtils.toString(path);
+            source = FixtureLoadEvent.RESOURCE;
+        }
+        long chars = text == null ? 0 : text.length();
+        Instrumentation.end(CheckPhase.FIXTURE_LOAD, start, chars);
+        if (event == null) {
+            return text;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.checker = Instrumentation.currentChecker();
+            event.path = path;
+            event.chars = chars;
+            event.source = text == null ? FixtureLoadEvent.MISSING : source;
+            event.commit();
+        }
+        return text;
+    }
+    
+    private void treeParsed(Fixture fixture) {
+        long treeWeight = (long) fixture.text.length() * TREE_BYTES_PER_CHAR;
+        synchronized (fixtures) {
+            fixture.weight += treeWeight;
+            if (fixtures.get(fixture.path) == fixture) {
+                bytes += treeWeight;
+                evict();
+            }
+        }
+    }
+    
+    private void evict() {
+        Iterator<Map.Entry<String, Fixture>> iterator = fixtures.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Fixture> eldest = iterator.next();
+            bytes -= eldest.getValue().weight;
+            iterator.remove();
+        }
+    }
+    
+    /* checked without the lock, so the strings which are not fixtures are neither cached nor counted */
+    private boolean exists(String path) {
+        return FixtureArchive.getDefault().contains(path) || ResourceUtils.isResource(path);
+    }
+    
+    /* inline json and multiline strings are never resource paths */
+    private boolean mayBeResource(String path) {
+        if (path.isEmpty()) {
+            return false;
+        }
+        char first = path.charAt(0);
+        return first != '{' && first != '[' && path.indexOf('\n') < 0;
+    }
+
+    /**
+     * Cached fixture.
+     */
+    public static final class Fixture {
+        
+        private final String path;
+        private final String text;
+        private volatile JsonNode tree;
+        /* guarded by the cache */
+        private long weight;
+
+        private Fixture(String path, String text) {
+            this.path = path;
+            this.text = text;
+            this.weight = (path.length() + (text == null ? 0 : text.length())) * 2L;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Returns the parsed json tree of the fixture. The tree is shared and must not be modified.
+         */
+        public JsonNode getTree() {
+            JsonNode result = tree;
+            if (result == null) {
+                synchronized (this) {
+                    result = tree;
+                    if (result == null) {
+                        result = JsonUtils.toTree(text);
+                        tree = result;
+                        treeParsed(this);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
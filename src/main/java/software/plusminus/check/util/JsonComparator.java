@@ -0,0 +1,383 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.experimental.UtilityClass;
+import software.plusminus.check.exception.JsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Compares two json documents by walking their token streams in lockstep.
+ * Stops at the first difference and neither builds trees nor pretty prints the documents,
+ * so comparing equal documents allocates only the parsers regardless of the documents size.
+ * The layout (whitespaces, line breaks) is ignored while the fields order and the number formats are significant.
+ */
+@UtilityClass
+public class JsonComparator {
+    
+    private static final int REGION_LIMIT = 8 * 1024;
+    private static final int REGION_WINDOW = 2;
+    private static final int DESCRIPTION_LIMIT = 200;
+    
+    private final JsonFactory factory = JsonUtils.getLenientFactory();
+
+    /**
+     * Compares two json documents.
+     *
+     * @return the first difference or empty Optional if the documents are equal
+     * @throws JsonException if any of the documents is not a valid json
+     */
+    public Optional<JsonMismatch> compare(String expected, String actual) {
+        try (JsonParser expectedParser = factory.createParser(expected);
+             JsonParser actualParser = factory.createParser(actual)) {
+            return compare(expectedParser, actualParser);
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+    
+    public Optional<JsonMismatch> compare(JsonParser expected, JsonParser actual) throws IOException {
+        while (true) {
+            JsonToken token = expected.nextToken();
+            if (token != actual.nextToken() || !sameValue(token, expected, actual)) {
+                return Optional.of(mismatch(expected, actual));
+            }
+            if (token == null) {
+                return Optional.empty();
+            }
+        }
+    }
+    
+    /**
+     * Pretty prints the part of the expected json document around the mismatch: 
+     * the object or array which contains the different value.
+     * The output is limited by a few kilobytes, so it is cheap even for huge documents.
+     */
+    public String expectedRegion(String json, JsonMismatch mismatch) {
+        try (JsonParser parser = factory.createParser(json)) {
+            return expectedRegion(parser, mismatch);
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+    
+    /**
+     * Same as {@link #expectedRegion(String, JsonMismatch)} but for the actual json document.
+     */
+    public String actualRegion(String json, JsonMismatch mismatch) {
+        try (JsonParser parser = factory.createParser(json)) {
+            return actualRegion(parser, mismatch);
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+    
+    /**
+     * Same as {@link #expectedRegion(String, JsonMismatch)} but reads the document from a new parser.
+     */
+    public String expectedRegion(JsonParser parser, JsonMismatch mismatch) throws IOException {
+        return region(parser, mismatch.getPath(), 
+                "at " + mismatch.getPathDescription() + ": " + mismatch.getExpected());
+    }
+    
+    /**
+     * Same as {@link #actualRegion(String, JsonMismatch)} but reads the document from a new parser.
+     */
+    public String actualRegion(JsonParser parser, JsonMismatch mismatch) throws IOException {
+        return region(parser, mismatch.getPath(), 
+                "at " + mismatch.getPathDescription() + ": " + mismatch.getActual());
+    }
+    
+    /**
+     * Creates a lenient parser which reads the stream incrementally and closes it when the parser is closed.
+     */
+    public JsonParser createParser(InputStream stream) throws IOException {
+        return factory.createParser(stream);
+    }
+    
+    public JsonParser createParser(String json) throws IOException {
+        return factory.createParser(json);
+    }
+    
+    /**
+     * Reads the value at the current token of the parser (with its nested values) as a compact json.
+     */
+    public String readValue(JsonParser parser) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = factory.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+    
+    private String region(JsonParser parser, String path, String description) throws IOException {
+        StringBuilder header = new StringBuilder(description);
+        JsonPointer pointer = JsonPointer.compile(path);
+        JsonPointer containerPointer = pointer.matches() ? pointer : pointer.head();
+        LimitedWriter writer = new LimitedWriter(REGION_LIMIT);
+        try (JsonGenerator generator = factory.createGenerator(writer)) {
+            generator.setPrettyPrinter(new JsonPrettyPrinter());
+            parser.nextToken();
+            if (navigate(parser, containerPointer)) {
+                int index = pointer.last() == null ? -1 : pointer.last().getMatchingIndex();
+                if (parser.currentToken() == JsonToken.START_ARRAY && index > REGION_WINDOW) {
+                    header.append(" (showing elements from ").append(index - REGION_WINDOW).append(')');
+                    copyArrayFrom(parser, generator, index - REGION_WINDOW);
+                } else {
+                    copyStructure(parser, generator);
+                }
+            }
+        } catch (LimitReachedException e) {
+            writer.append("\n...");
+        }
+        return header.append('\n').append(writer.toString()).toString();
+    }
+    
+    private boolean sameValue(JsonToken token, JsonParser expected, JsonParser actual) throws IOException {
+        if (token == null) {
+            return true;
+        }
+        switch (token) {
+            case FIELD_NAME:
+                return expected.getCurrentName().equals(actual.getCurrentName());
+            case VALUE_STRING:
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return sameText(expected, actual);
+            case VALUE_EMBEDDED_OBJECT:
+                return Objects.equals(expected.getEmbeddedObject(), actual.getEmbeddedObject());
+            default:
+                return true;
+        }
+    }
+    
+    private boolean sameText(JsonParser expected, JsonParser actual) throws IOException {
+        int length = expected.getTextLength();
+        if (length != actual.getTextLength()) {
+            return false;
+        }
+        char[] expectedChars = expected.getTextCharacters();
+        int expectedOffset = expected.getTextOffset();
+        char[] actualChars = actual.getTextCharacters();
+        int actualOffset = actual.getTextOffset();
+        for (int i = 0; i < length; i++) {
+            if (expectedChars[expectedOffset + i] != actualChars[actualOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private JsonMismatch mismatch(JsonParser expected, JsonParser actual) throws IOException {
+        JsonParser inside = isEnd(expected.currentToken()) ? actual : expected;
+        return new JsonMismatch(pointer(inside), describe(expected), describe(actual));
+    }
+    
+    private String pointer(JsonParser parser) {
+        JsonStreamContext context = parser.getParsingContext();
+        JsonToken token = parser.currentToken();
+        if ((token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) && context.getParent() != null) {
+            context = context.getParent();
+        }
+        return context.pathAsPointer().toString();
+    }
+    
+    private boolean isEnd(JsonToken token) {
+        return token == null || token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY;
+    }
+    
+    private String describe(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            return "end of document";
+        }
+        switch (token) {
+            case START_OBJECT:
+                return "{...}";
+            case START_ARRAY:
+                return "[...]";
+            case END_OBJECT:
+                return "end of object";
+            case END_ARRAY:
+                return "end of array";
+            case FIELD_NAME:
+                return "field \"" + limit(parser.getCurrentName()) + "\"";
+            case VALUE_STRING:
+                return "\"" + limit(parser.getText()) + "\"";
+            default:
+                return limit(parser.getText());
+        }
+    }
+    
+    private String limit(String text) {
+        if (text.length() <= DESCRIPTION_LIMIT) {
+            return text;
+        }
+        return text.substring(0, DESCRIPTION_LIMIT) + "...(" + text.length() + " chars)";
+    }
+    
+    /* Moves the parser from the root value to the value addressed by the pointer */
+    private boolean navigate(JsonParser parser, JsonPointer pointer) throws IOException {
+        JsonPointer current = pointer;
+        while (!current.matches()) {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                if (!moveToField(parser, current.getMatchingProperty())) {
+                    return false;
+                }
+            } else if (parser.currentToken() == JsonToken.START_ARRAY) {
+                if (!moveToElement(parser, current.getMatchingIndex())) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+            current = current.tail();
+        }
+        return true;
+    }
+    
+    private boolean moveToField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean found = parser.getCurrentName().equals(name);
+            parser.nextToken();
+            if (found) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+    
+    private boolean moveToElement(JsonParser parser, int index) throws IOException {
+        if (index < 0) {
+            return false;
+        }
+        for (int i = 0; i <= index; i++) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                return false;
+            }
+            if (i < index) {
+                parser.skipChildren();
+            }
+        }
+        return true;
+    }
+    
+    private void copyArrayFrom(JsonParser parser, JsonGenerator generator, int from) throws IOException {
+        generator.writeStartArray();
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (index++ < from) {
+                parser.skipChildren();
+            } else {
+                copyStructure(parser, generator);
+            }
+        }
+        generator.writeEndArray();
+    }
+    
+    /* Unlike JsonGenerator.copyCurrentStructure keeps the original text of numbers */
+    private void copyStructure(JsonParser parser, JsonGenerator generator) throws IOException {
+        int depth = 0;
+        do {
+            JsonToken token = parser.currentToken();
+            switch (token) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    generator.copyCurrentEvent(parser);
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    generator.copyCurrentEvent(parser);
+                    break;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    generator.writeNumber(parser.getText());
+                    break;
+                default:
+                    generator.copyCurrentEvent(parser);
+            }
+        } while (depth > 0 && parser.nextToken() != null);
+        generator.flush();
+    }
+
+    /**
+     * Writer which stops the rendering after the limit is reached.
+     */
+    private static class LimitedWriter extends Writer {
+        
+        private final StringBuilder buffer = new StringBuilder();
+        private final int limit;
+
+        LimitedWriter(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            int allowed = Math.min(length, limit - buffer.length());
+            buffer.append(chars, offset, allowed);
+            if (allowed < length) {
+                throw new LimitReachedException();
+            }
+        }
+
+        @Override
+        public Writer append(CharSequence text) {
+            buffer.append(text);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+            // nothing to flush
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+    
+    private static class LimitReachedException extends RuntimeException {
+        
+        private static final long serialVersionUID = 1L;
+        
+        LimitReachedException() {
+            super(null, null, false, false);
+        }
+    }
+}
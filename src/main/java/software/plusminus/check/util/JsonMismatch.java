@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import lombok.Value;
+
+/**
+ * The first difference found by {@link JsonComparator}.
+ * Contains the json pointer of the different value and short descriptions of the expected and actual tokens.
+ */
+@Value
+public class JsonMismatch {
+    
+    private String path;
+    private String expected;
+    private String actual;
+    
+    public String getPathDescription() {
+        return path.isEmpty() ? "/" : path;
+    }
+
+    @Override
+    public String toString() {
+        return "at " + getPathDescription() + " expected " + expected + " but was " + actual;
+    }
+}
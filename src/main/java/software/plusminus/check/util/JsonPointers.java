@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+
+/**
+ * Utility class for locating values in json documents by JSON Pointer (RFC 6901).
+ */
+@UtilityClass
+public class JsonPointers {
+
+    /**
+     * Compiles a JSON Pointer (starting with {@code /}) or a name of a top-level field.
+     */
+    public JsonPointer compile(String path) {
+        if (path.startsWith("/")) {
+            return JsonPointer.compile(path);
+        }
+        return JsonPointer.compile("/" + path.replace("~", "~0").replace("/", "~1"));
+    }
+
+    /**
+     * Moves the parser to the value the pointer points to, skipping all other subtrees without reading them.
+     * The parser must be positioned at the root value (or before it).
+     *
+     * @return false if the document does not contain the value
+     */
+    public boolean find(JsonParser parser, JsonPointer pointer) throws IOException {
+        if (!parser.hasCurrentToken()) {
+            parser.nextToken();
+        }
+        while (!pointer.matches()) {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                if (!findField(parser, pointer.getMatchingProperty())) {
+                    return false;
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                if (!findElement(parser, pointer.getMatchingIndex())) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+            pointer = pointer.tail();
+        }
+        return parser.hasCurrentToken();
+    }
+
+    /**
+     * Replaces the value the pointer points to. Adds a missing field if its parent object exists,
+     * does nothing if there is neither the value nor its parent.
+     */
+    public void replace(JsonNode root, JsonPointer pointer, JsonNode value) {
+        JsonNode parent = root.at(pointer.head());
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(pointer.last().getMatchingProperty(), value);
+        } else if (parent.isArray()) {
+            int index = pointer.last().getMatchingIndex();
+            if (index >= 0 && index < parent.size()) {
+                ((ArrayNode) parent).set(index, value);
+            }
+        }
+    }
+    
+    private boolean findField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean found = name.equals(parser.getCurrentName());
+            parser.nextToken();
+            if (found) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+    
+    private boolean findElement(JsonParser parser, int index) throws IOException {
+        if (index < 0) {
+            return false;
+        }
+        for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+            if (i == index) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
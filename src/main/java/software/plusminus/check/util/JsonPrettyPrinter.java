@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+
+import java.io.IOException;
+
+/**
+ * Jackson pretty printer which produces the same layout as the pretty printing of Gson:
+ * two spaces indentation, every array element on a separate line and no spaces inside empty containers.
+ */
+public class JsonPrettyPrinter extends DefaultPrettyPrinter {
+    
+    private static final long serialVersionUID = 1L;
+    private static final DefaultIndenter INDENTER = new DefaultIndenter("  ", "\n");
+
+    public JsonPrettyPrinter() {
+        indentArraysWith(INDENTER);
+        indentObjectsWith(INDENTER);
+    }
+
+    @Override
+    public JsonPrettyPrinter createInstance() {
+        return new JsonPrettyPrinter();
+    }
+
+    @Override
+    public void writeObjectFieldValueSeparator(JsonGenerator g) throws IOException {
+        g.writeRaw(": ");
+    }
+
+    @Override
+    public void writeEndObject(JsonGenerator g, int nrOfEntries) throws IOException {
+        --_nesting;
+        if (nrOfEntries > 0) {
+            _objectIndenter.writeIndentation(g, _nesting);
+        }
+        g.writeRaw('}');
+    }
+
+    @Override
+    public void writeEndArray(JsonGenerator g, int nrOfValues) throws IOException {
+        --_nesting;
+        if (nrOfValues > 0) {
+            _arrayIndenter.writeIndentation(g, _nesting);
+        }
+        g.writeRaw(']');
+    }
+}
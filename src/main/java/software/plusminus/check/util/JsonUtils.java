@@ -17,32 +17,37 @@ package software.plusminus.check.util;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.util.ISO8601DateFormat;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.voodoodyne.jackson.jsog.JSOGGenerator;
 import lombok.experimental.UtilityClass;
 import software.plusminus.check.exception.JsonException;
-import software.plusminus.util.ResourceUtils;
-import software.plusminus.util.StreamUtils;
+import software.plusminus.check.json.GsonJsonEngine;
+import software.plusminus.check.json.JacksonJsonEngine;
+import software.plusminus.check.json.JsonEngine;
+import software.plusminus.check.metrics.CheckPhase;
+import software.plusminus.check.metrics.Instrumentation;
+import software.plusminus.check.metrics.JsonSerializeEvent;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.ServiceLoader;
 
 /**
  * Utility class for json processing.
+ * The mappers, the lenient parser factory and the engine are created lazily on the first use,
+ * each by its own holder class, so checks which need only some of them do not pay for initializing the others.
  *
  * @author Taras Shpek
  */
@@ -50,15 +55,34 @@ import java.util.stream.Collectors;
 @UtilityClass
 public class JsonUtils {
 
-    private ObjectMapper jsonMapper;
-    private ObjectMapper jsogMapper;
-    private Gson prettyMapper;
+    private static final String ENGINE_PROPERTY = "plusminus.check.json.engine";
     
-    static {
-        jsonMapper = createObjectMapper();
-        jsogMapper = createObjectMapper();
-        jsogMapper.addMixIn(Object.class, JsogMixin.class);
-        prettyMapper = new GsonBuilder().setPrettyPrinting().create();
+    /* engine set with setEngine, null for the loaded one */
+    private volatile JsonEngine engine;
+    
+    public ObjectMapper getObjectMapper() {
+        return JsonMapperHolder.MAPPER;
+    }
+    
+    /**
+     * Factory of the parsers which accept comments, single quotes, unquoted field names and non-numeric numbers,
+     * shared by all the json comparisons so their parsing rules are the same.
+     * It must not be reconfigured, {@link JsonFactory#copy()} it instead.
+     */
+    public JsonFactory getLenientFactory() {
+        return LenientFactoryHolder.FACTORY;
+    }
+    
+    public JsonEngine getEngine() {
+        JsonEngine current = engine;
+        return current == null ? EngineHolder.ENGINE : current;
+    }
+    
+    /**
+     * Replaces the json engine, {@code null} restores the one configured by the system property or ServiceLoader.
+     */
+    public void setEngine(JsonEngine engine) {
+        JsonUtils.engine = engine;
     }
     
     /* Had to suppress PMD.UselessParentheses to incease a code readability
@@ -70,66 +94,115 @@ public class JsonUtils {
     }
     
     public String toJson(Object object) {
+        return getEngine().serialize(object);
+    }
+    
+    /**
+     * Serializes the object in a single pass, the same way as the plain Jackson serialization,
+     * unless the graph has circular references. Such graphs are serialized by {@link #toJsog(Object)}.
+     */
+    public String toCycleAwareJson(Object object) {
+        JsonSerializeEvent event = JsonSerializeEvent.beginIfEnabled();
+        String json;
         try {
-            return jsonMapper.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
+            json = CycleAwareSerializer.serialize(JsonMapperHolder.MAPPER, object, event);
+        } catch (IOException e) {
             throw new JsonException(e);
         }
+        if (json == null) {
+            json = toJsog(object);
+            if (event != null) {
+                event.cycles = JsonSerializeEvent.JSOG_FALLBACK;
+            }
+        }
+        if (event == null) {
+            return json;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = JsonSerializeEvent.SERIALIZE;
+            event.type = object == null ? null : object.getClass();
+            event.chars = json.length();
+            commit(event);
+        }
+        return json;
     }
     
     public String toJsog(Object object) {
         try {
-            return jsogMapper.writeValueAsString(object);
+            return JsogMapperHolder.MAPPER.writeValueAsString(object);
         } catch (JsonProcessingException e) {
             throw new JsonException(e);
         }
     }
     
     public <T> T fromJson(String json, Class<T> type) {
-        try {
-            json = readJson(json);
-            return jsonMapper.readValue(json, type);
-        } catch (JsonProcessingException e) {
-            throw new JsonException(e);
-        }
+        String text = readJson(json);
+        long start = Instrumentation.start();
+        T result = getEngine().parse(text, type);
+        Instrumentation.end(CheckPhase.PARSE, start, text.length());
+        return result;
     }
     
     public <T> List<T> fromJsonList(String json, Class<T[]> type) {
-        T[] array;
+        return Arrays.asList(fromJson(json, type));
+    }
+    
+    public JsonNode toTree(String json) {
+        long start = Instrumentation.start();
         try {
-            json = readJson(json);
-            array = jsonMapper.readValue(json, type);
+            return JsonMapperHolder.MAPPER.readTree(json);
         } catch (JsonProcessingException e) {
             throw new JsonException(e);
+        } finally {
+            Instrumentation.end(CheckPhase.PARSE, start, json.length());
         }
-        return Arrays.asList(array);
     }
     
     public String pretty(String json) {
-        if (!json.contains("{")) {
-            return json;
-        }
-        JsonElement jsonElement = JsonParser.parseString(json);
-        return prettyMapper.toJson(jsonElement);
+        JsonSerializeEvent event = JsonSerializeEvent.beginIfEnabled();
+        long start = Instrumentation.start();
+        String pretty = getEngine().pretty(json);
+        Instrumentation.end(CheckPhase.PRETTY, start, pretty.length());
+        commitPretty(event, JsonSerializeEvent.PRETTY, pretty);
+        return pretty;
     }
     
     public String prettyOrdered(String targetJson, String baseJson) {
-        if (!targetJson.contains("{")) {
-            return targetJson;
+        JsonSerializeEvent event = JsonSerializeEvent.beginIfEnabled();
+        long start = Instrumentation.start();
+        String pretty = getEngine().prettyOrdered(targetJson, baseJson);
+        Instrumentation.end(CheckPhase.PRETTY, start, pretty.length());
+        commitPretty(event, JsonSerializeEvent.PRETTY_ORDERED, pretty);
+        return pretty;
+    }
+    
+    private void commitPretty(JsonSerializeEvent event, String operation, String pretty) {
+        if (event == null) {
+            return;
         }
-        JsonElement baseJsonElement = JsonParser.parseString(baseJson);
-        JsonElement targetJsonElement = JsonParser.parseString(targetJson);
-        if (baseJsonElement.isJsonObject() && targetJsonElement.isJsonObject()) {
-            targetJsonElement = orderJsonObject(targetJsonElement.getAsJsonObject(),
-                    baseJsonElement.getAsJsonObject());
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.type = String.class;
+            event.chars = pretty.length();
+            commit(event);
         }
-        return prettyMapper.toJson(targetJsonElement);
+    }
+    
+    private void commit(JsonSerializeEvent event) {
+        event.checker = Instrumentation.currentChecker();
+        event.commit();
+    }
+    
+    public Optional<JsonMismatch> compare(String expected, String actual) {
+        return getEngine().compare(expected, actual);
     }
     
     public String prettyAlternative(String json) {
         try {
-            Object jsonObject = jsonMapper.readValue(json, Object.class);
-            return jsonMapper.writerWithDefaultPrettyPrinter()
+            Object jsonObject = JsonMapperHolder.MAPPER.readValue(json, Object.class);
+            return JsonMapperHolder.MAPPER.writerWithDefaultPrettyPrinter()
                     .writeValueAsString(jsonObject);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -140,12 +213,35 @@ public class JsonUtils {
         if (isJson(json)) {
             return json;
         }
-        if (ResourceUtils.isResource(json)) {
-            return ResourceUtils.toString(json);
+        FixtureCache.Fixture fixture = FixtureCache.get(json);
+        if (fixture != null) {
+            return fixture.getText();
         }
         throw new AssertionError("Unknown json: " + json);
     }
     
+    private JsonEngine loadEngine() {
+        String name = System.getProperty(ENGINE_PROPERTY);
+        if (name == null) {
+            Iterator<JsonEngine> engines = ServiceLoader.load(JsonEngine.class).iterator();
+            return engines.hasNext() ? engines.next() : new JacksonJsonEngine();
+        }
+        switch (name) {
+            case "jackson":
+                return new JacksonJsonEngine();
+            case "gson":
+                return new GsonJsonEngine(new JacksonJsonEngine());
+            default:
+                try {
+                    return Class.forName(name).asSubclass(JsonEngine.class)
+                            .getDeclaredConstructor()
+                            .newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalStateException("Can't create json engine " + name, e);
+                }
+        }
+    }
+    
     private ObjectMapper createObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
@@ -155,33 +251,35 @@ public class JsonUtils {
         return mapper;
     }
 
-    private JsonObject orderJsonObject(JsonObject target, JsonObject base) {
-        Map<String, JsonElement> baseFields = jsonObjectToMap(base);
-        Map<String, JsonElement> targetFields = jsonObjectToMap(target);
-        JsonObject result = new JsonObject();
-        for (Map.Entry<String, JsonElement> baseField : baseFields.entrySet()) {
-            JsonElement targetFieldElement = targetFields.get(baseField.getKey());
-            if (targetFieldElement != null) {
-                if (baseField.getValue().isJsonObject()
-                        && targetFieldElement.isJsonObject()) {
-                    targetFieldElement = orderJsonObject(targetFieldElement.getAsJsonObject(),
-                            baseField.getValue().getAsJsonObject());
-                }
-                result.add(baseField.getKey(), targetFieldElement);
-                targetFields.remove(baseField.getKey());
-            }
+    @JsonIdentityInfo(generator = JSOGGenerator.class)
+    private static class JsogMixin {
+    }
+    
+    private static final class JsonMapperHolder {
+        private static final ObjectMapper MAPPER = createObjectMapper();
+        
+        static {
+            MAPPER.setSerializerFactory(MAPPER.getSerializerFactory()
+                    .withSerializerModifier(new CycleAwareSerializer()));
         }
-        targetFields.forEach(result::add);
-        return result;
     }
     
-    private static Map<String, JsonElement> jsonObjectToMap(JsonObject jsonObject) {
-        return jsonObject.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
-                        StreamUtils.noDuplicatesMergeFunction(), LinkedHashMap::new));
+    /* needed only for the circular references which CycleAwareSerializer can't write */
+    private static final class JsogMapperHolder {
+        private static final ObjectMapper MAPPER = createObjectMapper()
+                .addMixIn(Object.class, JsogMixin.class);
     }
     
-    @JsonIdentityInfo(generator = JSOGGenerator.class)
-    private static class JsogMixin {
+    private static final class LenientFactoryHolder {
+        private static final JsonFactory FACTORY = new JsonFactoryBuilder()
+                .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+                .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+                .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+                .enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS)
+                .build();
+    }
+    
+    private static final class EngineHolder {
+        private static final JsonEngine ENGINE = loadEngine();
     }
 }
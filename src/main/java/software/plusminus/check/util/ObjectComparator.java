@@ -0,0 +1,362 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compares two object graphs field by field without serializing them.
+ * Returns {@code true} only if both graphs are guaranteed to have the same json representation
+ * (same classes, equal fields, equal elements in the same iteration order and the same shape of circular references).
+ * {@code false} means the objects are different <b>or</b> the comparison is not possible
+ * (e.g. jdk classes with private state), so the caller has to fall back to the json comparison.
+ * <p>
+ * Field accessors are built once per class with {@link MethodHandle}s and cached in a {@link ClassValue}.
+ */
+@UtilityClass
+public class ObjectComparator {
+    
+    private static final int MAX_DEPTH = 512;
+    private static final Set<Class<?>> VALUE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class, Locale.class,
+            Currency.class, Date.class, Class.class));
+    
+    private final ClassValue<ClassAccessor> accessors = new ClassValue<ClassAccessor>() {
+        @Override
+        protected ClassAccessor computeValue(Class<?> type) {
+            return ClassAccessor.of(type);
+        }
+    };
+    
+    public boolean equal(Object expected, Object actual) {
+        return new Comparison().equal(expected, actual);
+    }
+
+    /**
+     * State of a single comparison: the path of the containers being compared, used to detect circular references.
+     */
+    private static final class Comparison {
+        
+        private Object[] expectedPath;
+        private Object[] actualPath;
+        private int depth;
+        
+        private boolean equal(Object expected, Object actual) {
+            if (expected == actual) {
+                return true;
+            }
+            if (expected == null || actual == null || expected.getClass() != actual.getClass()) {
+                return false;
+            }
+            ClassAccessor accessor = accessors.get(expected.getClass());
+            switch (accessor.kind) {
+                case VALUE:
+                    return expected.equals(actual);
+                case UNSUPPORTED:
+                    return false;
+                default:
+                    return equalContainers(accessor, expected, actual);
+            }
+        }
+        
+        private boolean equalContainers(ClassAccessor accessor, Object expected, Object actual) {
+            int onPath = indexOnPath(expected);
+            if (onPath >= 0) {
+                // circular reference: both graphs must point back to the same position
+                return actualPath[onPath] == actual;
+            }
+            if (depth == MAX_DEPTH) {
+                return false;
+            }
+            push(expected, actual);
+            try {
+                switch (accessor.kind) {
+                    case ARRAY:
+                        return equalArrays(expected, actual);
+                    case COLLECTION:
+                        return equalCollections((Collection<?>) expected, (Collection<?>) actual);
+                    case MAP:
+                        return equalMaps((Map<?, ?>) expected, (Map<?, ?>) actual);
+                    default:
+                        return equalBeans(accessor, expected, actual);
+                }
+            } finally {
+                depth--;
+            }
+        }
+        
+        private boolean equalBeans(ClassAccessor accessor, Object expected, Object actual) {
+            try {
+                for (MethodHandle comparator : accessor.primitiveComparators) {
+                    if (!(boolean) comparator.invokeExact(expected, actual)) {
+                        return false;
+                    }
+                }
+                for (MethodHandle getter : accessor.referenceGetters) {
+                    if (!equal((Object) getter.invokeExact(expected), (Object) getter.invokeExact(actual))) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot compare " + expected.getClass().getName(), e);
+            }
+        }
+        
+        @SuppressWarnings("checkstyle:CyclomaticComplexity")
+        private boolean equalArrays(Object expected, Object actual) {
+            if (expected instanceof Object[]) {
+                Object[] expectedArray = (Object[]) expected;
+                Object[] actualArray = (Object[]) actual;
+                if (expectedArray.length != actualArray.length) {
+                    return false;
+                }
+                for (int i = 0; i < expectedArray.length; i++) {
+                    if (!equal(expectedArray[i], actualArray[i])) {
+                        return false;
+                    }
+                }
+                return true;
+            } else if (expected instanceof int[]) {
+                return Arrays.equals((int[]) expected, (int[]) actual);
+            } else if (expected instanceof long[]) {
+                return Arrays.equals((long[]) expected, (long[]) actual);
+            } else if (expected instanceof double[]) {
+                return Arrays.equals((double[]) expected, (double[]) actual);
+            } else if (expected instanceof float[]) {
+                return Arrays.equals((float[]) expected, (float[]) actual);
+            } else if (expected instanceof boolean[]) {
+                return Arrays.equals((boolean[]) expected, (boolean[]) actual);
+            } else if (expected instanceof char[]) {
+                return Arrays.equals((char[]) expected, (char[]) actual);
+            } else if (expected instanceof byte[]) {
+                return Arrays.equals((byte[]) expected, (byte[]) actual);
+            } else {
+                return Arrays.equals((short[]) expected, (short[]) actual);
+            }
+        }
+        
+        private boolean equalCollections(Collection<?> expected, Collection<?> actual) {
+            if (expected.size() != actual.size()) {
+                return false;
+            }
+            Iterator<?> actualIterator = actual.iterator();
+            for (Object expectedElement : expected) {
+                if (!actualIterator.hasNext() || !equal(expectedElement, actualIterator.next())) {
+                    return false;
+                }
+            }
+            return !actualIterator.hasNext();
+        }
+        
+        private boolean equalMaps(Map<?, ?> expected, Map<?, ?> actual) {
+            if (expected.size() != actual.size()) {
+                return false;
+            }
+            Iterator<? extends Map.Entry<?, ?>> actualIterator = actual.entrySet().iterator();
+            for (Map.Entry<?, ?> expectedEntry : expected.entrySet()) {
+                if (!actualIterator.hasNext()) {
+                    return false;
+                }
+                Map.Entry<?, ?> actualEntry = actualIterator.next();
+                if (!equal(expectedEntry.getKey(), actualEntry.getKey())
+                        || !equal(expectedEntry.getValue(), actualEntry.getValue())) {
+                    return false;
+                }
+            }
+            return !actualIterator.hasNext();
+        }
+        
+        private int indexOnPath(Object expected) {
+            for (int i = depth - 1; i >= 0; i--) {
+                if (expectedPath[i] == expected) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        private void push(Object expected, Object actual) {
+            if (expectedPath == null) {
+                expectedPath = new Object[16];
+                actualPath = new Object[16];
+            } else if (depth == expectedPath.length) {
+                expectedPath = Arrays.copyOf(expectedPath, depth * 2);
+                actualPath = Arrays.copyOf(actualPath, depth * 2);
+            }
+            expectedPath[depth] = expected;
+            actualPath[depth] = actual;
+            depth++;
+        }
+    }
+    
+    private enum Kind {
+        VALUE,
+        ARRAY,
+        COLLECTION,
+        MAP,
+        BEAN,
+        UNSUPPORTED
+    }
+
+    /**
+     * The way objects of a particular class are compared.
+     */
+    /* The 'same' methods are used through the method handles */
+    @SuppressWarnings("PMD.UnusedPrivateMethod")
+    private static final class ClassAccessor {
+        
+        private static final ClassAccessor VALUE = new ClassAccessor(Kind.VALUE);
+        private static final ClassAccessor ARRAY = new ClassAccessor(Kind.ARRAY);
+        private static final ClassAccessor COLLECTION = new ClassAccessor(Kind.COLLECTION);
+        private static final ClassAccessor MAP = new ClassAccessor(Kind.MAP);
+        private static final ClassAccessor UNSUPPORTED = new ClassAccessor(Kind.UNSUPPORTED);
+        private static final MethodType COMPARATOR_TYPE = 
+                MethodType.methodType(boolean.class, Object.class, Object.class);
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        
+        private final Kind kind;
+        private final MethodHandle[] primitiveComparators;
+        private final MethodHandle[] referenceGetters;
+
+        private ClassAccessor(Kind kind) {
+            this(kind, new MethodHandle[0], new MethodHandle[0]);
+        }
+
+        private ClassAccessor(Kind kind, MethodHandle[] primitiveComparators, MethodHandle[] referenceGetters) {
+            this.kind = kind;
+            this.primitiveComparators = primitiveComparators;
+            this.referenceGetters = referenceGetters;
+        }
+
+        private static ClassAccessor of(Class<?> type) {
+            if (type.isArray()) {
+                return ARRAY;
+            } else if (VALUE_TYPES.contains(type) || Enum.class.isAssignableFrom(type)
+                    || type.getName().startsWith("java.time.")) {
+                return VALUE;
+            } else if (Collection.class.isAssignableFrom(type)) {
+                return COLLECTION;
+            } else if (Map.class.isAssignableFrom(type)) {
+                return MAP;
+            }
+            try {
+                return bean(type);
+            } catch (IllegalAccessException | RuntimeException e) {
+                // e.g. inaccessible module or a synthetic class
+                return UNSUPPORTED;
+            }
+        }
+        
+        private static ClassAccessor bean(Class<?> type) throws IllegalAccessException {
+            List<MethodHandle> primitiveComparators = new ArrayList<>();
+            List<MethodHandle> referenceGetters = new ArrayList<>();
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+                if (isJdkClass(current)) {
+                    return UNSUPPORTED;
+                }
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    MethodHandle getter = lookup.unreflectGetter(field);
+                    if (field.getType().isPrimitive()) {
+                        primitiveComparators.add(primitiveComparator(getter, field.getType()));
+                    } else {
+                        referenceGetters.add(getter.asType(GETTER_TYPE));
+                    }
+                }
+            }
+            return new ClassAccessor(Kind.BEAN, 
+                    primitiveComparators.toArray(new MethodHandle[0]), 
+                    referenceGetters.toArray(new MethodHandle[0]));
+        }
+        
+        /* (Object, Object) -> boolean handle which compares the field of two objects */
+        private static MethodHandle primitiveComparator(MethodHandle getter, Class<?> fieldType) 
+                throws IllegalAccessException {
+            MethodHandle equality;
+            try {
+                equality = MethodHandles.lookup().findStatic(ClassAccessor.class, "same",
+                        MethodType.methodType(boolean.class, fieldType, fieldType));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+            return MethodHandles.filterArguments(equality, 0, getter, getter).asType(COMPARATOR_TYPE);
+        }
+        
+        private static boolean isJdkClass(Class<?> type) {
+            String name = type.getName();
+            return name.startsWith("java.") || name.startsWith("javax.") 
+                    || name.startsWith("jdk.") || name.startsWith("sun.") || name.startsWith("com.sun.");
+        }
+        
+        private static boolean same(boolean expected, boolean actual) {
+            return expected == actual;
+        }
+        
+        private static boolean same(byte expected, byte actual) {
+            return expected == actual;
+        }
+        
+        private static boolean same(short expected, short actual) {
+            return expected == actual;
+        }
+        
+        private static boolean same(char expected, char actual) {
+            return expected == actual;
+        }
+        
+        private static boolean same(int expected, int actual) {
+            return expected == actual;
+        }
+        
+        private static boolean same(long expected, long actual) {
+            return expected == actual;
+        }
+        
+        private static boolean same(float expected, float actual) {
+            return Float.compare(expected, actual) == 0;
+        }
+        
+        private static boolean same(double expected, double actual) {
+            return Double.compare(expected, actual) == 0;
+        }
+    }
+}
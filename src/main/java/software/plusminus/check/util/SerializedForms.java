@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import software.plusminus.util.ClassUtils;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Identity memo of the string and json forms of objects (see {@link CheckUtils}).
+ * A check shares it with the checks it delegates to, so an object is serialized at most once per top-level check.
+ * Objects are expected not to change during the check. Not thread safe.
+ */
+public class SerializedForms {
+    
+    /* written only by the JSOG serialization of circular graphs (or by an object with such a property) */
+    private static final String JSOG_ID = "\"@id\"";
+    
+    private final Map<Object, String> strings = new IdentityHashMap<>();
+    private final Map<Object, String> jsons = new IdentityHashMap<>();
+    
+    /**
+     * Same as {@link CheckUtils#toString(Object)}.
+     */
+    public String toString(Object object) {
+        if (object instanceof String) {
+            return (String) object;
+        }
+        String string = strings.get(object);
+        if (string == null) {
+            string = ClassUtils.isJavaClass(object.getClass()) ? object.toString() : toJson(object);
+            strings.put(object, string);
+        }
+        return string;
+    }
+    
+    /**
+     * Same as {@link CheckUtils#toJson(Object)}.
+     */
+    public String toJson(Object object) {
+        String json = jsons.get(object);
+        if (json == null) {
+            json = CheckUtils.toJson(object);
+            jsons.put(object, json);
+        }
+        return json;
+    }
+    
+    /**
+     * Json array of the elements built from their memoized forms, 
+     * equal to {@link CheckUtils#toJson(Object)} of the list.
+     * If an element has circular references, the whole list is serialized instead,
+     * as the JSOG ids of its elements are numbered across the list.
+     */
+    public String toJsonArray(List<?> elements) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            String json = toJson(elements.get(i));
+            if (json.contains(JSOG_ID)) {
+                return CheckUtils.toJson(elements);
+            }
+            builder.append(json);
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Record mode of the resource expectations, switched on with {@code -Dplusminus.check.snapshots.record=true}.
+ * A failing check whose expectation is a resource (or a missing {@code .json} resource) writes the actual value
+ * to the resource in the {@code plusminus.check.snapshots.dir} directory ({@code src/test/resources} by default)
+ * instead of failing. Json values are pretty printed. The writes are collected and flushed in batches
+ * and when the JVM exits. Safe for concurrent use.
+ */
+@UtilityClass
+public class Snapshots {
+    
+    private static final String RECORD_PROPERTY = "plusminus.check.snapshots.record";
+    private static final String DIRECTORY_PROPERTY = "plusminus.check.snapshots.dir";
+    private static final int BATCH_SIZE = 64;
+    
+    private volatile boolean recording = Boolean.getBoolean(RECORD_PROPERTY);
+    private volatile Path directory = Paths.get(System.getProperty(DIRECTORY_PROPERTY, "src/test/resources"));
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private final AtomicBoolean shutdownHook = new AtomicBoolean();
+    private final LongAdder recorded = new LongAdder();
+    
+    public boolean isRecording() {
+        return recording;
+    }
+    
+    public void setRecording(boolean recording) {
+        Snapshots.recording = recording;
+    }
+    
+    public void setDirectory(Path directory) {
+        Snapshots.directory = directory;
+    }
+    
+    /**
+     * Returns true if the expectation is an existing resource or a new {@code .json} resource.
+     */
+    public boolean isSnapshot(String expected) {
+        if (FixtureCache.get(expected) != null) {
+            return true;
+        }
+        return expected.endsWith(".json") && expected.indexOf('\n') < 0 && expected.indexOf('{') < 0;
+    }
+    
+    /**
+     * Replaces the snapshot with the actual value, the file is written with the next batch.
+     */
+    public void record(String path, String actual) {
+        String text = JsonUtils.isJson(actual) ? JsonUtils.pretty(actual) : actual;
+        FixtureCache.put(path, text);
+        recorded.increment();
+        boolean full;
+        synchronized (pending) {
+            pending.put(path, text);
+            full = pending.size() >= BATCH_SIZE;
+        }
+        if (shutdownHook.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(Snapshots::flush, "plusminus-check-snapshots"));
+        }
+        if (full) {
+            flush();
+        }
+    }
+    
+    /**
+     * Writes the recorded snapshots.
+     */
+    public void flush() {
+        Map<String, String> batch;
+        synchronized (pending) {
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        Path root = directory;
+        batch.forEach((path, text) -> {
+            Path file = root.resolve(path);
+            try {
+                Path parent = file.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    /**
+     * Returns the number of snapshots recorded by this JVM.
+     */
+    public long getRecorded() {
+        return recorded.sum();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.Writer;
+
+/**
+ * Thread-local recycled writers for the serialization and pretty printing output,
+ * so parallel checks do not allocate a new growing buffer for every document.
+ * The internal char and byte buffers of the parsers and generators are recycled by Jackson itself.
+ * Nested usage on the same thread gets a fresh writer.
+ */
+@UtilityClass
+public class TextBuffers {
+    
+    /* Bigger buffers are not kept after use so a single huge document does not stay in memory */
+    private static final int MAX_RETAINED_CHARS = 1024 * 1024;
+    
+    private final ThreadLocal<BufferWriter> buffers = ThreadLocal.withInitial(BufferWriter::new);
+    
+    /**
+     * Returns an empty writer which must be given back with {@link #release(BufferWriter)}.
+     */
+    public BufferWriter acquire() {
+        BufferWriter writer = buffers.get();
+        if (writer.acquired) {
+            return new BufferWriter();
+        }
+        writer.acquired = true;
+        return writer;
+    }
+    
+    public void release(BufferWriter writer) {
+        if (writer != buffers.get()) {
+            return;
+        }
+        if (writer.builder.capacity() > MAX_RETAINED_CHARS) {
+            buffers.remove();
+            return;
+        }
+        writer.builder.setLength(0);
+        writer.acquired = false;
+    }
+
+    /**
+     * Unsynchronized writer which exposes the written chars.
+     */
+    public static final class BufferWriter extends Writer {
+        
+        private final StringBuilder builder = new StringBuilder();
+        private boolean acquired;
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            builder.append(text, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+            // nothing to flush
+        }
+
+        /**
+         * Does nothing, as generators close their target, use {@link TextBuffers#release(BufferWriter)} instead.
+         */
+        @Override
+        public void close() {
+            // released explicitly
+        }
+        
+        public int length() {
+            return builder.length();
+        }
+        
+        public StringBuilder getBuilder() {
+            return builder;
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Reorders the arrays of the actual json the same way as the arrays of the expected json.
+ * The elements are matched as multisets by their canonical hashes, which do not depend on the order
+ * of object fields and of unordered arrays elements, so matching an array takes linear time.
+ * Elements with the same hash are verified to be equivalent before matching.
+ * The hash of each object and array is computed once per reordering, however deep it is nested.
+ */
+@UtilityClass
+public class UnorderedArrays {
+    
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+    private static final long TRUE_HASH = 0xC2B2AE3D27D4EB4FL;
+    private static final long FALSE_HASH = 0x165667B19E3779F9L;
+    private static final long OBJECT_SEED = 0x27D4EB2F165667C5L;
+    private static final long ARRAY_SEED = 0x85EBCA77C2B2AE63L;
+    private static final long UNORDERED_ARRAY_SEED = 0xFF51AFD7ED558CCDL;
+
+    /**
+     * Reorders all arrays of the actual json in place.
+     *
+     * @return the elements which have no equivalent elements in the other json
+     */
+    public List<Mismatch> reorder(JsonNode expected, JsonNode actual) {
+        Matcher matcher = new Matcher(path -> true, true);
+        matcher.reorder(expected, actual, "");
+        return matcher.mismatches;
+    }
+
+    /**
+     * Reorders the arrays of the actual json in place if they are located by the given json pointers
+     * in the expected json. Arrays nested in the elements of these arrays keep their order.
+     *
+     * @return the elements which have no equivalent elements in the other json
+     */
+    public List<Mismatch> reorder(JsonNode expected, JsonNode actual, Collection<String> pointers) {
+        Matcher matcher = new Matcher(pointers::contains, false);
+        matcher.reorder(expected, actual, "");
+        return matcher.mismatches;
+    }
+
+    /**
+     * Elements of an array which have no equivalent elements in the other array.
+     */
+    @Value
+    public static class Mismatch {
+        
+        private String path;
+        private List<JsonNode> expected;
+        private List<JsonNode> actual;
+        
+        public String getPathDescription() {
+            return path.isEmpty() ? "/" : path;
+        }
+    }
+
+    private static final class Matcher {
+        
+        private final Predicate<String> unordered;
+        private final boolean nestedUnordered;
+        private final List<Mismatch> mismatches = new ArrayList<>();
+        /* canonical hashes of the objects and arrays of both jsons */
+        private final Map<JsonNode, Long> hashes = new IdentityHashMap<>();
+
+        private Matcher(Predicate<String> unordered, boolean nestedUnordered) {
+            this.unordered = unordered;
+            this.nestedUnordered = nestedUnordered;
+        }
+
+        private void reorder(JsonNode expected, JsonNode actual, String path) {
+            if (expected.isObject() && actual.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    JsonNode actualValue = actual.get(field.getKey());
+                    if (actualValue != null) {
+                        reorder(field.getValue(), actualValue, path + "/" + escape(field.getKey()));
+                    }
+                }
+            } else if (expected.isArray() && actual.isArray()) {
+                if (unordered.test(path)) {
+                    reorderArray((ArrayNode) expected, (ArrayNode) actual, path);
+                } else {
+                    for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+                        reorder(expected.get(i), actual.get(i), path + "/" + i);
+                    }
+                }
+            }
+        }
+        
+        private void reorderArray(ArrayNode expected, ArrayNode actual, String path) {
+            Map<Long, Deque<Integer>> expectedByHash = new HashMap<>(expected.size() * 2);
+            for (int i = 0; i < expected.size(); i++) {
+                expectedByHash.computeIfAbsent(hash(expected.get(i)), h -> new ArrayDeque<>(1)).add(i);
+            }
+            JsonNode[] matched = new JsonNode[expected.size()];
+            List<JsonNode> unmatchedActual = new ArrayList<>();
+            for (JsonNode element : actual) {
+                Deque<Integer> candidates = expectedByHash.get(hash(element));
+                Integer index = candidates == null ? null : takeEquivalent(candidates, expected, element);
+                if (index == null) {
+                    unmatchedActual.add(element);
+                } else {
+                    matched[index] = element;
+                }
+            }
+            List<JsonNode> unmatchedExpected = new ArrayList<>();
+            actual.removeAll();
+            for (int i = 0; i < matched.length; i++) {
+                if (matched[i] == null) {
+                    unmatchedExpected.add(expected.get(i));
+                } else {
+                    actual.add(matched[i]);
+                    // equivalent elements may still differ by the order of their nested arrays
+                    reorder(expected.get(i), matched[i], path + "/" + i);
+                }
+            }
+            actual.addAll(unmatchedActual);
+            if (!unmatchedExpected.isEmpty() || !unmatchedActual.isEmpty()) {
+                mismatches.add(new Mismatch(path, unmatchedExpected, unmatchedActual));
+            }
+        }
+        
+        private Integer takeEquivalent(Deque<Integer> candidates, ArrayNode expected, JsonNode element) {
+            Iterator<Integer> iterator = candidates.iterator();
+            while (iterator.hasNext()) {
+                Integer index = iterator.next();
+                if (equivalent(expected.get(index), element)) {
+                    iterator.remove();
+                    return index;
+                }
+            }
+            return null;
+        }
+        
+        private boolean equivalent(JsonNode expected, JsonNode actual) {
+            if (expected.getNodeType() != actual.getNodeType() || expected.size() != actual.size()) {
+                return false;
+            }
+            if (expected.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    JsonNode actualValue = actual.get(field.getKey());
+                    if (actualValue == null || !equivalent(field.getValue(), actualValue)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (expected.isArray()) {
+                return nestedUnordered ? equivalentUnordered(expected, actual) : equivalentOrdered(expected, actual);
+            }
+            return expected.equals(actual);
+        }
+        
+        private boolean equivalentOrdered(JsonNode expected, JsonNode actual) {
+            for (int i = 0; i < expected.size(); i++) {
+                if (!equivalent(expected.get(i), actual.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private boolean equivalentUnordered(JsonNode expected, JsonNode actual) {
+            Map<Long, Deque<Integer>> expectedByHash = new HashMap<>(expected.size() * 2);
+            for (int i = 0; i < expected.size(); i++) {
+                expectedByHash.computeIfAbsent(hash(expected.get(i)), h -> new ArrayDeque<>(1)).add(i);
+            }
+            for (JsonNode element : actual) {
+                Deque<Integer> candidates = expectedByHash.get(hash(element));
+                if (candidates == null || takeEquivalent(candidates, (ArrayNode) expected, element) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /* memoized canonical hash, the arrays are hashed as unordered if the nested ones are compared so */
+        private long hash(JsonNode node) {
+            return UnorderedArrays.hash(node, nestedUnordered, hashes);
+        }
+    }
+    
+    /**
+     * Canonical hash of the json tree, equal for equivalent trees.
+     */
+    static long hash(JsonNode node, boolean unorderedArrays) {
+        return hash(node, unorderedArrays, new IdentityHashMap<>());
+    }
+    
+    /* the hashes of objects and arrays are memoized, so the nested ones are not hashed again for each level */
+    private static long hash(JsonNode node, boolean unorderedArrays, Map<JsonNode, Long> hashes) {
+        if (!node.isContainerNode()) {
+            return valueHash(node);
+        }
+        Long memoized = hashes.get(node);
+        if (memoized != null) {
+            return memoized;
+        }
+        long hash;
+        if (node.isObject()) {
+            long objectHash = OBJECT_SEED;
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                objectHash += mix(hash(field.getKey()) * 31 + hash(field.getValue(), unorderedArrays, hashes));
+            }
+            hash = mix(objectHash);
+        } else {
+            long arrayHash = unorderedArrays ? UNORDERED_ARRAY_SEED : ARRAY_SEED;
+            for (JsonNode element : node) {
+                long elementHash = hash(element, unorderedArrays, hashes);
+                arrayHash = unorderedArrays ? arrayHash + mix(elementHash) : arrayHash * 31 + elementHash;
+            }
+            hash = mix(arrayHash);
+        }
+        hashes.put(node, hash);
+        return hash;
+    }
+    
+    private static long valueHash(JsonNode node) {
+        switch (node.getNodeType()) {
+            case NULL:
+                return NULL_HASH;
+            case BOOLEAN:
+                return node.booleanValue() ? TRUE_HASH : FALSE_HASH;
+            case NUMBER:
+                return mix(hash(node.asText()) + node.numberType().ordinal());
+            default:
+                return mix(hash(node.asText()) + node.getNodeType().ordinal());
+        }
+    }
+    
+    /* FNV-1a */
+    private static long hash(String text) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+    
+    /* finalizer of MurmurHash3 */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+    
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
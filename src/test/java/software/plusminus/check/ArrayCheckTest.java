@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.fail;
+import static software.plusminus.check.Assertions.assertFail;
+
+public class ArrayCheckTest {
+    
+    @Test
+    public void intArray() {
+        Checks.check(new int[] {1, 2, 3}).is(1, 2, 3);
+        assertFail(() -> Checks.check(new int[] {1, 2, 3}).is(1, 5, 3), "[1, 2, 3]", "[1, 5, 3]");
+        assertFail(() -> Checks.check(new int[] {1, 2}).is(1, 2, 3), "[1, 2]", "[1, 2, 3]");
+    }
+    
+    @Test
+    public void largeArrayFailShowsOnlyDifferentElements() {
+        int[] expected = IntStream.range(0, 1000).toArray();
+        int[] actual = expected.clone();
+        actual[1] = -1;
+        assertFail(() -> Checks.check(actual).is(expected), "at /1\n[0, -1, 2, 3]", "at /1\n[0, 1, 2, 3]");
+        assertFail(() -> Checks.check(new long[1001]).is(new long[1000]), "size is 1001", "size is 1000");
+    }
+    
+    @Test
+    public void doubleArray() {
+        Checks.check(new double[] {1.0, Double.NaN}).is(1.0, Double.NaN);
+        assertFail(() -> Checks.check(new double[] {1.0, 0.0}).is(1.0, -0.0), "[1.0, 0.0]", "[1.0, -0.0]");
+    }
+    
+    @Test
+    public void doubleArrayWithTolerance() {
+        Checks.check(new double[] {0.1 + 0.2, 1.0}).withinUlps(1).is(0.3, 1.0);
+        Checks.check(new double[] {1.05, 2.0}).within(0.1).is(1.0, 2.0);
+        assertFail(() -> Checks.check(new double[] {1.2, 2.0}).within(0.1).is(1.0, 2.0),
+                "[1.2, 2.0]", "[1.0, 2.0]");
+        assertFail(() -> Checks.check(new double[] {Double.NaN}).withinUlps(10).is(1.0), "[NaN]", "[1.0]");
+    }
+    
+    @Test
+    public void floatArrayWithTolerance() {
+        Checks.check(new float[] {0.1f + 0.2f}).withinUlps(1).is(0.3f);
+        assertFail(() -> Checks.check(new float[] {1.5f}).within(0.1f).is(1f), "[1.5]", "[1.0]");
+    }
+    
+    @Test
+    public void charArray() {
+        Checks.check("abc".toCharArray()).is("abc");
+        assertFail(() -> Checks.check("abc".toCharArray()).is('a', 'c'), "[a, b, c]", "[a, c]");
+    }
+    
+    @Test
+    public void nullArrays() {
+        Checks.check((int[]) null).isNull();
+        Checks.check((long[]) null).is((long[]) null);
+        Checks.check(new double[0]).isNotNull();
+    }
+    
+    @Test
+    public void nullActualArrayIsReportedAsFailure() {
+        assertFail(() -> Checks.check((int[]) null).is(1, 2), "is null", "is not null");
+        assertFail(() -> Checks.check((double[]) null).within(0.1).is(1.0), "is null", "is not null");
+        assertFail(() -> Checks.check((char[]) null).hasSize(1), "is null", "size is 1");
+        assertFail(() -> Checks.check((float[]) null).isNotNull(), "is null", "is not null");
+        assertFail(() -> Checks.check(new long[2]).isNull(), "size is 2", "is null");
+        assertFail(() -> Checks.check(new int[1]).is((int[]) null), "size is 1", "is null");
+    }
+    
+    @Test
+    public void sameArray() {
+        int[] array = {1, 2};
+        Checks.check(array).isSame(array);
+        try {
+            Checks.check(array).isSame(array.clone());
+        } catch (AssertionError e) {
+            return;
+        }
+        fail();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.ComparisonFailure;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchTest {
+    
+    @Test
+    public void allFailuresAreReported() {
+        try {
+            Checks.batch(() -> {
+                Checks.check(1).is(2);
+                Checks.check("{\"a\":1}").is("{\"a\":2}");
+                Checks.check(true).isTrue();
+                Checks.check(Arrays.asList(1, 2)).hasSize(3);
+            });
+        } catch (AssertionError e) {
+            assertEquals("3 checks failed\n\n"
+                    + "1) expected:<2> but was:<1>\n\n"
+                    + "2) json differs:\n  replace /a: 2 -> 1\n\n"
+                    + "3) expected:<size is [3]> but was:<size is [2]>", e.getMessage());
+            assertEquals(3, e.getSuppressed().length);
+            ComparisonFailure json = (ComparisonFailure) e.getSuppressed()[1];
+            assertEquals("{\n  \"a\": 2\n}", json.getExpected());
+            assertTrue(Arrays.stream(json.getStackTrace())
+                    .anyMatch(element -> element.getClassName().startsWith(BatchTest.class.getName())));
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void singleFailureIsThrownAsIs() {
+        try {
+            Checks.batch(() -> {
+                Checks.check(1).is(1);
+                Checks.check("a").is("b");
+            });
+        } catch (ComparisonFailure e) {
+            assertEquals("b", e.getExpected());
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void failuresAreNotThrownInsideOfBatch() {
+        boolean[] completed = new boolean[1];
+        try {
+            Checks.batch(() -> {
+                Checks.check(1).is(2);
+                Checks.batch(() -> Checks.check(3).is(4));
+                completed[0] = true;
+            });
+        } catch (AssertionError e) {
+            assertTrue(completed[0]);
+            assertEquals(2, e.getSuppressed().length);
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void checkWhichCantContinueStopsBatch() {
+        boolean[] completed = new boolean[1];
+        try {
+            Checks.batch(() -> {
+                Checks.check(1).is(2);
+                Checks.check((Object) "string").as(Integer.class).is(1);
+                completed[0] = true;
+            });
+        } catch (AssertionError e) {
+            assertEquals(false, completed[0]);
+            assertEquals(2, e.getSuppressed().length);
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void passedBatch() {
+        Checks.batch(() -> Checks.check("{\"a\":1}").is("{ \"a\": 1 }"));
+    }
+    
+    @Test
+    public void unexpectedExceptionKeepsCollectedFailures() {
+        try {
+            Checks.batch(() -> {
+                Checks.check(1).is(2);
+                Checks.check("{\"a\":1}").is("{\"a\":2}");
+                throw new IllegalStateException("unexpected");
+            });
+        } catch (IllegalStateException e) {
+            assertEquals(2, e.getSuppressed().length);
+            assertEquals("expected:<2> but was:<1>", e.getSuppressed()[0].getMessage());
+            return;
+        }
+        fail();
+    }
+}
@@ -109,6 +109,17 @@ public class ChecksTest {
                         "}");
     }
 
+    @Test
+    public void objectStringSuccess() {
+        Checks.check(new TextClass("text")).is("text");
+    }
+
+    @Test
+    public void objectStringFail() {
+        Runnable check = () -> Checks.check(new TextClass("text")).is("other");
+        assertFail(check, "text", "other");
+    }
+
     @Test
     public void collectionSuccess() {
         Checks.check(Arrays.asList(one(), two())).is(one(), two());
@@ -195,6 +206,20 @@ public class ChecksTest {
         return map;
     }
     
+    /* has neither properties nor getters, so it can't be serialized to json */
+    private static class TextClass {
+        private final String text;
+
+        TextClass(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+    
     @Data
     private static class TestClass {
         private String string;
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.Test;
+import software.plusminus.check.exception.CollectionDiffFailure;
+import software.plusminus.check.util.JsonUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static software.plusminus.check.Assertions.assertFail;
+
+public class CollectionCheckTest {
+    
+    @Test
+    public void containsObjectWithoutEquals() {
+        new CollectionCheck<>(items(1, 2, 3)).contains(new Item(2));
+    }
+    
+    @Test
+    public void containsAll() {
+        CollectionCheck<Item> check = new CollectionCheck<>(items(1, 2, 3));
+        check.containsAll(new Item(3), new Item(1));
+        assertFail(() -> check.containsAll(new Item(1), new Item(4), new Item(5)),
+                "does not contain [{\"id\":4}, {\"id\":5}]", "contains [{\"id\":4}, {\"id\":5}]");
+    }
+    
+    @Test
+    public void containsExactlyInAnyOrder() {
+        new CollectionCheck<>(items(1, 2, 1)).containsExactlyInAnyOrder(new Item(1), new Item(1), new Item(2));
+        new CollectionCheck<>(Arrays.asList("a", "b")).containsExactlyInAnyOrder("b", "a");
+    }
+    
+    @Test
+    public void containsFallsBackToEquals() {
+        List<Version> versions = Arrays.asList(new Version(1, "a"), new Version(2, "b"));
+        CollectionCheck<Version> check = new CollectionCheck<>(versions);
+        check.contains(new Version(2, "other build"));
+        assertEquals(0, versions.get(1).serializations);
+        check.containsAll(new Version(1, "other build"), new Version(2, "b"));
+        check.containsExactlyInAnyOrder(new Version(2, "other build"), new Version(1, "a"));
+        assertFail(() -> check.containsExactlyInAnyOrder(new Version(2, "b"), new Version(2, "other build")),
+                "also contains [{\"major\":1,\"build\":\"a\"}]", 
+                "also contains [{\"major\":2,\"build\":\"other build\"}]");
+    }
+    
+    @Test
+    public void containsKeepsStringsApartFromNumbersAndBooleans() {
+        CollectionCheck<Object> check = new CollectionCheck<>(Arrays.asList("1", "true"));
+        check.contains("1");
+        check.containsExactlyInAnyOrder("true", "1");
+        assertFail(() -> check.contains(1), "does not contain in [1, true]", "should contain 1");
+        assertFail(() -> check.contains(true), "does not contain in [1, true]", "should contain true");
+        assertFail(() -> check.containsAll("1", 1), "does not contain [1]", "contains [1]");
+        assertFail(() -> check.containsExactlyInAnyOrder(1, true),
+                "also contains [\"1\", \"true\"]", "also contains [1, true]");
+        CollectionCheck<Object> mixed = new CollectionCheck<>(Arrays.asList(1, "1", true));
+        mixed.containsAll(1, "1", true);
+        mixed.containsExactlyInAnyOrder("1", true, 1);
+        assertFail(() -> mixed.containsExactlyInAnyOrder("1", "true", 1),
+                "also contains [true]", "also contains [\"true\"]");
+    }
+    
+    @Test
+    public void containsExactlyInAnyOrderFail() {
+        assertFail(() -> new CollectionCheck<>(items(1, 2, 2)).containsExactlyInAnyOrder(
+                        new Item(1), new Item(2), new Item(3)),
+                "also contains [{\"id\":2}]", "also contains [{\"id\":3}]");
+        assertFail(() -> new CollectionCheck<>(items(1)).containsExactlyInAnyOrder(new Item(1), new Item(1)),
+                "also contains []", "also contains [{\"id\":1}]");
+    }
+    
+    @Test
+    public void largeCollectionFailShowsOnlyDifferentElements() {
+        int[] ids = IntStream.range(0, 1000).toArray();
+        Object[] expected = items(ids).toArray();
+        ids[500] = -1;
+        assertFail(() -> new CollectionCheck<>(items(ids)).is(expected),
+                "at /500 (showing elements from 498)\n" + pretty(498, 499, -1, 501, 502),
+                "at /500 (showing elements from 498)\n" + pretty(498, 499, 500, 501, 502));
+    }
+    
+    @Test
+    public void largeCollectionSizeFail() {
+        Object[] expected = items(IntStream.range(0, 1000).toArray()).toArray();
+        assertFail(() -> new CollectionCheck<>(items(IntStream.range(0, 999).toArray())).is(expected),
+                "size is 999", "size is 1000");
+    }
+    
+    @Test
+    public void largeCollectionFailListsInsertedAndRemovedElements() {
+        Object[] expected = items(IntStream.range(0, 100_000).toArray()).toArray();
+        int[] ids = IntStream.range(0, 100_000)
+                .filter(i -> i != 77812)
+                .flatMap(i -> i == 1042 ? IntStream.of(-1, i) : IntStream.of(i))
+                .toArray();
+        try {
+            new CollectionCheck<>(items(ids)).is(expected);
+        } catch (CollectionDiffFailure e) {
+            assertEquals("collection differs:\n"
+                    + "  inserted at 1042: {\"id\":-1}\n"
+                    + "  removed at 77812: {\"id\":77812}", e.getMessage());
+            assertEquals("at /1042 (showing elements from 1040)\n" + pretty(1040, 1041, 1042, 1043, 1044), 
+                    e.getExpected());
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void elementsAreSerializedOnce() {
+        CountingItem actual = new CountingItem(1);
+        CountingItem expected = new CountingItem(2);
+        try {
+            new CollectionCheck<>(Arrays.asList(actual)).is(expected);
+        } catch (AssertionError e) {
+            assertEquals(1, actual.serializations);
+            assertEquals(1, expected.serializations);
+            return;
+        }
+        fail("Expected the failure");
+    }
+    
+    private String pretty(int... ids) {
+        return JsonUtils.pretty(JsonUtils.toJson(items(ids)));
+    }
+    
+    private List<Item> items(int... ids) {
+        return Arrays.stream(ids)
+                .mapToObj(Item::new)
+                .collect(Collectors.toList());
+    }
+    
+    private static class Item {
+        
+        private int id;
+
+        Item(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+    
+    private static class CountingItem {
+        
+        private int id;
+        private int serializations;
+
+        CountingItem(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            serializations++;
+            return id;
+        }
+    }
+    
+    private static class Version {
+        
+        private int major;
+        private String build;
+        private int serializations;
+
+        Version(int major, String build) {
+            this.major = major;
+            this.build = build;
+        }
+
+        public int getMajor() {
+            serializations++;
+            return major;
+        }
+
+        public String getBuild() {
+            return build;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Version && ((Version) other).major == major;
+        }
+
+        @Override
+        public int hashCode() {
+            return major;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.Test;
+
+import static software.plusminus.check.Assertions.assertFail;
+
+public class DoubleCheckTest {
+    
+    @Test
+    public void sameNumbers() {
+        new DoubleCheck(0.1 + 0.2).is(0.30000000000000004);
+        new DoubleCheck(1.5).is("1.5");
+    }
+    
+    @Test
+    public void zerosAndNaN() {
+        new DoubleCheck(-0.0).is(0.0);
+        new DoubleCheck(Double.NaN).is(Double.NaN);
+    }
+    
+    @Test
+    public void differentNumbers() {
+        assertFail(() -> new DoubleCheck(1.5).is(2.5), 1.5, 2.5);
+        assertFail(() -> new DoubleCheck(Double.NaN).is("1"), Double.NaN, 1.0);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EventuallyTest {
+    
+    @Test
+    public void checkIsRetriedUntilItPasses() {
+        AtomicInteger attempts = new AtomicInteger();
+        
+        Checks.eventually(Duration.ofSeconds(5), () -> Checks.check(attempts.incrementAndGet()).is(3));
+        
+        assertEquals(3, attempts.get());
+    }
+    
+    @Test
+    public void lastFailureIsReportedOnTimeout() {
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            Checks.eventually(Duration.ofMillis(100), () -> Checks.check(attempts.incrementAndGet()).is(0));
+        } catch (AssertionError e) {
+            assertEquals("expected:<0> but was:<" + attempts.get() + ">", e.getMessage());
+            assertTrue(attempts.get() > 1);
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void signalWakesUpWaitingCheck() {
+        Signal signal = new Signal();
+        AtomicInteger value = new AtomicInteger();
+        new Thread(() -> {
+            sleep(50);
+            value.set(1);
+            signal.signal();
+        }).start();
+        long start = System.nanoTime();
+        
+        Checks.eventually(Duration.ofSeconds(30))
+                .pollInterval(Duration.ofSeconds(10), Duration.ofSeconds(10))
+                .on(signal)
+                .until(() -> Checks.check(value.get()).is(1));
+        
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+    
+    @Test
+    public void attemptsAreNotCollectedByBatch() {
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            Checks.batch(() -> {
+                Checks.eventually(Duration.ofSeconds(5), () -> Checks.check(attempts.incrementAndGet()).is(2));
+                Checks.eventually(Duration.ofMillis(50), () -> Checks.check(false).isTrue());
+                Checks.check(1).is(2);
+            });
+        } catch (AssertionError e) {
+            assertEquals(2, e.getSuppressed().length);
+            assertEquals(2, attempts.get());
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void asyncWaiting() throws InterruptedException {
+        AtomicInteger value = new AtomicInteger();
+        CompletableFuture<Void> passing = Checks.eventually(Duration.ofSeconds(5))
+                .untilAsync(() -> Checks.check(value.get()).is(1));
+        CompletableFuture<Void> failing = Checks.eventually(Duration.ofMillis(50))
+                .untilAsync(() -> Checks.check(value.get()).is(2));
+        value.set(1);
+        
+        passing.join();
+        try {
+            failing.get();
+        } catch (ExecutionException e) {
+            assertEquals("expected:<2> but was:<1>", e.getCause().getMessage());
+            return;
+        }
+        fail();
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static software.plusminus.check.Assertions.assertFail;
+
+public class IteratorCheckTest {
+    
+    @Test
+    public void streamIsComparedElementByElement() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Item> items = IntStream.range(1, 4).mapToObj(Item::new).onClose(() -> closed.set(true));
+        
+        Checks.check(items).is(new Item(1), new Item(2), new Item(3));
+        
+        assertTrue(closed.get());
+    }
+    
+    @Test
+    public void checkStopsAtFirstDifference() {
+        AtomicInteger produced = new AtomicInteger();
+        Stream<Item> items = Stream.iterate(1, i -> i + 1)
+                .peek(i -> produced.incrementAndGet())
+                .map(Item::new);
+        
+        assertFail(() -> Checks.check(items).is(new Item(1), new Item(3), new Item(4)),
+                "at /1\n{\n  \"id\": 2\n}", "at /1\n{\n  \"id\": 3\n}");
+        assertEquals(2, produced.get());
+    }
+    
+    @Test
+    public void jsonArrayFixture() {
+        Checks.check(Arrays.asList(new Item(1), new Item(2)).iterator()).is("[{\"id\":1},{\"id\": 2}]");
+        assertFail(() -> Checks.check(Arrays.asList(new Item(1), new Item(2)).iterator()).is("[{\"id\":1}]"),
+                "size is more than 1", "size is 1");
+    }
+    
+    @Test
+    public void infiniteSource() {
+        Checks.check(Stream.iterate(1, i -> i * 2)).startsWith(1, 2, 4, 8);
+        Checks.check(Stream.iterate(1, i -> i * 2).spliterator()).limit(3).is(1, 2, 4);
+        assertFail(() -> Checks.check(Stream.iterate(1, i -> i * 2)).hasSize(1000),
+                "size is more than 1000", "size is 1000");
+    }
+    
+    @Test
+    public void hasSize() {
+        Checks.check(IntStream.range(0, 1_000_000).boxed()).hasSize(1_000_000);
+        assertFail(() -> Checks.check(Arrays.asList(1, 2).iterator()).hasSize(3), "size is 2", "size is 3");
+    }
+    
+    @Test
+    public void sourceIsConsumedOnce() {
+        IteratorCheck<Integer> check = Checks.check(Arrays.asList(1, 2).iterator());
+        check.startsWith(1);
+        try {
+            check.startsWith(1);
+        } catch (IllegalStateException e) {
+            return;
+        }
+        fail();
+    }
+    
+    private static class Item {
+        
+        private int id;
+
+        Item(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
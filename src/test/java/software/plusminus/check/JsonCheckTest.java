@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static software.plusminus.check.Assertions.assertFail;
+
+public class JsonCheckTest {
+    
+    private static final String JSON = "{\"data\":{\"items\":[{\"id\":1,\"tags\":[\"a\"]},{\"id\":2,\"tags\":[]}],"
+            + "\"next\":null},\"total\":2}";
+    
+    @Test
+    public void topLevelField() {
+        new JsonCheck(JSON)
+                .checkField("total", total -> assertEquals(2, total))
+                .is("{\"data\":{\"items\":[{\"id\":1,\"tags\":[\"a\"]},{\"id\":2,\"tags\":[]}],"
+                        + "\"next\":null},\"total\":3}");
+    }
+    
+    @Test
+    public void nestedFields() {
+        new JsonCheck(JSON)
+                .checkField("/data/items/1/id", id -> assertEquals(2, id))
+                .checkField("/data/items/0/tags", tags -> assertEquals(Collections.singletonList("a"), tags))
+                .checkField("/data/next", next -> assertNull(next))
+                .is("{\"data\":{\"items\":[{\"id\":1,\"tags\":[\"b\", \"c\"]},{\"id\":5,\"tags\":[]}],"
+                        + "\"next\":\"page2\"},\"total\":2}");
+    }
+    
+    @Test
+    public void arrayRoot() {
+        new JsonCheck("[{\"id\":1},{\"id\":2}]")
+                .checkField("/1/id", id -> assertEquals(2, id))
+                .is("[{\"id\":1},{\"id\":3}]");
+    }
+    
+    @Test
+    public void missingField() {
+        assertFail(() -> new JsonCheck(JSON).checkField("/data/items/2/id", id -> { }),
+                "Field /data/items/2/id is missed", "Field /data/items/2/id is present");
+        assertFail(() -> new JsonCheck(JSON).checkField("/total/value", id -> { }),
+                "Field /total/value is missed", "Field /total/value is present");
+    }
+    
+    @Test
+    public void otherFieldsAreCompared() {
+        assertFail(() -> new JsonCheck("{\"a\":{\"b\":1,\"c\":2}}")
+                        .checkField("/a/b", b -> { })
+                        .is("{\"a\":{\"b\":3,\"c\":3}}"),
+                "{\n  \"a\": {\n    \"b\": \"SEPARATELY CHECKED\",\n    \"c\": 2\n  }\n}",
+                "{\n  \"a\": {\n    \"b\": \"SEPARATELY CHECKED\",\n    \"c\": 3\n  }\n}");
+    }
+    
+    @Test
+    public void fieldWithSlashInName() {
+        new JsonCheck("{\"a/b\":[1,2]}")
+                .checkField("a/b", value -> assertEquals(Arrays.asList(1, 2), value))
+                .is("{\"a/b\":[]}");
+    }
+    
+    @Test
+    public void ignoringArraysOrder() {
+        new JsonCheck("{\"items\":[{\"id\":2,\"tags\":[\"b\",\"a\"]},{\"id\":1,\"tags\":[]}],\"ids\":[3,1,2]}")
+                .ignoringArraysOrder()
+                .is("{\"items\":[{\"id\":1,\"tags\":[]},{\"id\":2,\"tags\":[\"a\",\"b\"]}],\"ids\":[1,2,3]}");
+    }
+    
+    @Test
+    public void ignoringOrderOfChosenArrays() {
+        String actual = "{\"items\":[2,1],\"ids\":[2,1]}";
+        new JsonCheck(actual)
+                .ignoringArraysOrder("/items", "ids")
+                .is("{\"items\":[1,2],\"ids\":[1,2]}");
+        assertFail(() -> new JsonCheck(actual)
+                        .ignoringArraysOrder("/items")
+                        .is("{\"items\":[1,2],\"ids\":[1,2]}"),
+                "{\n  \"items\": [\n    1,\n    2\n  ],\n  \"ids\": [\n    2,\n    1\n  ]\n}",
+                "{\n  \"items\": [\n    1,\n    2\n  ],\n  \"ids\": [\n    1,\n    2\n  ]\n}");
+    }
+    
+    @Test
+    public void onlyUnmatchedElementsAreReported() {
+        assertFail(() -> new JsonCheck("{\"items\":[{\"id\":3},{\"id\":1},{\"id\":1}]}")
+                        .ignoringArraysOrder()
+                        .is("{\"items\":[{\"id\":1},{\"id\":2},{\"id\":1}]}"),
+                "at /items unmatched elements:\n[\n  {\n    \"id\": 3\n  }\n]",
+                "at /items unmatched elements:\n[\n  {\n    \"id\": 2\n  }\n]");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.ComparisonFailure;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static software.plusminus.check.Assertions.assertFail;
+
+public class JsonStreamCheckTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void equalFiles() throws IOException {
+        Path actual = file("{\"a\": 1, \"b\": [true, null]}");
+        Checks.checkJson(actual).is(file("{\n  \"a\": 1,\n  \"b\": [\n    true,\n    null\n  ]\n}"));
+        Checks.checkJson(actual).is("{\"a\":1,\"b\":[true,null]}");
+    }
+    
+    @Test
+    public void differentFilesShowRegions() throws IOException {
+        Path actual = file("{\"a\": {\"b\": 1, \"c\": 2}}");
+        Path expected = file("{\"a\": {\"b\": 1, \"c\": 3}}");
+        assertFail(() -> Checks.checkJson(actual).is(expected),
+                "at /a/c: 2\n{\n  \"b\": 1,\n  \"c\": 2\n}",
+                "at /a/c: 3\n{\n  \"b\": 1,\n  \"c\": 3\n}");
+    }
+    
+    @Test
+    public void bufferAndStream() {
+        ByteBuffer actual = ByteBuffer.wrap("[1, 2, 3]".getBytes(StandardCharsets.UTF_8));
+        Checks.checkJson(actual).is(stream("[1,2,3]"));
+        Checks.checkJson(actual).is("[1,2,3]");
+        assertEquals(0, actual.position());
+        assertFail(() -> Checks.checkJson(actual).is(stream("[1,2,4]")),
+                "at /2: 3\n[\n  1,\n  2,\n  3\n]", "at /2: 4");
+    }
+    
+    @Test
+    public void streamIsReadOnce() {
+        JsonStreamCheck check = Checks.checkJson(stream("{\"a\":1}"));
+        check.is("{\"a\":1}");
+        try {
+            check.is("{\"a\":1}");
+        } catch (IllegalStateException e) {
+            return;
+        }
+        fail("Expected the exception");
+    }
+    
+    @Test
+    public void bigFileFailureIsBounded() throws IOException {
+        Path expected = bigArray(200_000, -1);
+        Path actual = bigArray(200_000, 150_000);
+        try {
+            Checks.checkJson(actual).is(expected);
+        } catch (ComparisonFailure e) {
+            assertEquals("at /150000/id: 150000\n{\n  \"id\": 150000,\n  \"name\": \"item150000\"\n}", 
+                    e.getExpected());
+            assertEquals("at /150000/id: -1\n{\n  \"id\": -1,\n  \"name\": \"item150000\"\n}", e.getActual());
+            return;
+        }
+        fail("Expected the failure");
+    }
+    
+    private Path file(String json) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, json.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+    
+    private Path bigArray(int size, int changedIndex) throws IOException {
+        Path path = folder.newFile().toPath();
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            writer.write('[');
+            for (int i = 0; i < size; i++) {
+                writer.write(i == 0 ? "" : ",");
+                writer.write("{\"id\":" + (i == changedIndex ? -1 : i) + ",\"name\":\"item" + i + "\"}");
+            }
+            writer.write(']');
+        }
+        return path;
+    }
+    
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.Test;
+import software.plusminus.check.exception.MapDiffFailure;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static software.plusminus.check.Assertions.assertFail;
+
+public class MapCheckTest {
+    
+    @Test
+    public void iterationOrderIsIgnored() {
+        Map<String, Integer> tree = new TreeMap<>();
+        Map<String, Integer> linked = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            tree.put("key" + i, i);
+            linked.put("key" + (99 - i), 99 - i);
+        }
+        Checks.check(tree).is(linked);
+    }
+    
+    @Test
+    public void nestedMapsOfDifferentClassesAreNormalized() {
+        Map<String, Integer> linked = new LinkedHashMap<>();
+        linked.put("zz", 1);
+        linked.put("aa", 2);
+        Map<String, Integer> tree = new TreeMap<>(linked);
+        Map<String, Object> actual = new HashMap<>();
+        actual.put("nested", linked);
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("nested", tree);
+        Checks.check(actual).is(expected);
+    }
+    
+    @Test
+    public void nullActualIsReportedAsFailure() {
+        Map<String, Integer> actual = null;
+        Checks.check(actual).is((Map<String, Integer>) null);
+        assertFail(() -> Checks.check(actual).is(new HashMap<>()), "is null", "is not null");
+        assertFail(() -> Checks.check(actual).containsEntry("a", 1), "is null", "is not null");
+        assertFail(() -> Checks.check(actual).hasSize(1), "is null", "size is 1");
+        assertFail(() -> Checks.check(actual).isEmpty(), "is null", "to be empty");
+    }
+    
+    @Test
+    public void keyValues() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", 1);
+        map.put("b", null);
+        Checks.check(map).is("a", 1, "b", null);
+        Checks.check(map).is("b", null, "a", 1);
+    }
+    
+    @Test
+    public void keysAreMatchedByStringForm() {
+        Map<Integer, String> map = new TreeMap<>();
+        map.put(1, "one");
+        Checks.check(map).is("1", "one");
+    }
+    
+    @Test
+    public void valueFixtureIsResolved() {
+        Map<String, String> map = new HashMap<>();
+        map.put("a", "One");
+        Checks.check(map).is("a", "one.txt");
+    }
+    
+    @Test
+    public void differencesAreReportedByKeys() {
+        Map<String, Object> actual = new LinkedHashMap<>();
+        actual.put("a", 1);
+        actual.put("b", 2);
+        actual.put("d", 4);
+        try {
+            Checks.check(actual).is("a", 1, "b", 3, "c", 3);
+        } catch (MapDiffFailure e) {
+            assertEquals("map differs:\n"
+                    + "  missing keys: [c]\n"
+                    + "  extra keys: [d]\n"
+                    + "  different values: [b]\n"
+                    + "    replace /b: 3 -> 2", e.getMessage());
+            assertEquals("{\n  \"a\": 1,\n  \"b\": 3,\n  \"c\": 3\n}", e.getExpected());
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void containsEntries() {
+        Map<String, Object> actual = new HashMap<>();
+        actual.put("a", 1);
+        actual.put("b", new Unserializable());
+        Checks.check(actual).containsEntry("a", 1);
+        try {
+            Checks.check(actual).containsEntry("c", 1);
+        } catch (MapDiffFailure e) {
+            assertEquals("map differs:\n  missing keys: [c]", e.getMessage());
+            assertEquals("{}", e.getActual());
+            return;
+        }
+        fail();
+    }
+    
+    private static class Unserializable {
+        
+        public Object getValue() {
+            throw new UnsupportedOperationException("Should not be serialized");
+        }
+    }
+}
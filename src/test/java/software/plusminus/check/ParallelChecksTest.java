@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.ComparisonFailure;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the same checks from many threads, so mixed up buffers or shared state show up as wrong results.
+ */
+public class ParallelChecksTest {
+    
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 500;
+    
+    @Test
+    public void checksAreThreadSafe() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    check(thread * ITERATIONS + i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private void check(int id) {
+        Item item = new Item(id, "item" + id, Arrays.asList(id, id + 1));
+        Checks.check(item).is(new Item(id, "item" + id, Arrays.asList(id, id + 1)));
+        Checks.check(item).is("{\"id\":" + id + ",\"name\":\"item" + id + "\",\"values\":[" + id + "," + (id + 1) + "]}");
+        Checks.check(Arrays.asList(item)).is(new Item(id, "item" + id, Arrays.asList(id, id + 1)));
+        Checks.check("{\"id\":" + id + ",\"name\":\"x\"}").isJson()
+                .checkField("name", name -> Checks.check(name).is("x"))
+                .is("{\"id\":" + id + "}");
+        try {
+            Checks.check(item).is(new Item(id, "other", Arrays.asList(id, id + 1)));
+            fail("Expected the failure of " + id);
+        } catch (ComparisonFailure e) {
+            assertEquals("{\n  \"id\": " + id + ",\n  \"name\": \"other\",\n  \"values\": [\n    " + id + ",\n    " 
+                    + (id + 1) + "\n  ]\n}", e.getExpected());
+            assertEquals("json differs:\n  replace /name: \"other\" -> \"item" + id + "\"", e.getMessage());
+        }
+    }
+    
+    @Data
+    @AllArgsConstructor
+    private static class Item {
+        private int id;
+        private String name;
+        private List<Integer> values;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.plusminus.check.util.FixtureCache;
+import software.plusminus.check.util.Snapshots;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SnapshotsTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Before
+    public void setUp() {
+        Snapshots.setDirectory(folder.getRoot().toPath());
+        Snapshots.setRecording(true);
+    }
+    
+    @After
+    public void tearDown() {
+        Snapshots.setRecording(false);
+        FixtureCache.clear();
+    }
+    
+    @Test
+    public void failingCheckRecordsActualValue() throws IOException {
+        Checks.check("{\"name\":\"recorded\"}").is("fixture.json");
+        Snapshots.flush();
+        
+        assertEquals("{\n  \"name\": \"recorded\"\n}", read("fixture.json"));
+        Checks.check("{\"name\": \"recorded\"}").is("fixture.json");
+    }
+    
+    @Test
+    public void missingSnapshotIsCreated() throws IOException {
+        Checks.check(new Item("new")).is("snapshots/item.json");
+        Snapshots.flush();
+        
+        assertEquals("{\n  \"name\": \"new\"\n}", read("snapshots/item.json"));
+    }
+    
+    @Test
+    public void passingCheckDoesNotRecord() {
+        Checks.check("{\"name\": \"fixture\"}").isJson().is("fixture.json");
+        Snapshots.flush();
+        
+        assertFalse(Files.exists(folder.getRoot().toPath().resolve("fixture.json")));
+    }
+    
+    @Test
+    public void batchRecordsInsteadOfFailing() throws IOException {
+        Checks.batch(() -> Checks.check("{\"name\":\"batch\"}").is("fixture.json"));
+        Snapshots.flush();
+        
+        assertEquals("{\n  \"name\": \"batch\"\n}", read("fixture.json"));
+    }
+    
+    private String read(String path) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(path);
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+    
+    private static class Item {
+        
+        private final String name;
+
+        Item(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -15,8 +15,13 @@
  */
 package software.plusminus.check;
 
+import org.junit.ComparisonFailure;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static software.plusminus.check.Assertions.assertFail;
+
 /**
  * String checker test.
  *
@@ -28,5 +33,56 @@ public class StringCheckTest {
     public void successWithResource() throws Exception {
         new StringCheck("One").is("one.txt");
     }
+    
+    @Test
+    public void separatelyCheckedFieldWithResource() {
+        new StringCheck("{\"name\":\"other\"}").isJson()
+                .checkField("name", name -> assertEquals("other", name))
+                .is("fixture.json");
+    }
+    
+    @Test
+    public void largeJsonFailShowsOnlyDifferentRegion() {
+        String expected = largeJson("old");
+        String actual = largeJson("new");
+        try {
+            new StringCheck(actual).is(expected);
+        } catch (ComparisonFailure e) {
+            assertEquals("at /items/9999/name: \"old\"\n"
+                    + "{\n"
+                    + "  \"id\": 9999,\n"
+                    + "  \"name\": \"old\"\n"
+                    + "}", e.getExpected());
+            assertEquals("at /items/9999/name: \"new\"\n"
+                    + "{\n"
+                    + "  \"id\": 9999,\n"
+                    + "  \"name\": \"new\"\n"
+                    + "}", e.getActual());
+            return;
+        }
+        fail();
+    }
+    
+    @Test
+    public void nullFieldsAreIgnoredAtAnySize() {
+        new StringCheck("{\"x\":null,\"a\":1}").is("{\"a\":1}");
+        String expected = largeJson("item");
+        String actual = "{\"x\": null, " + expected.substring(1);
+        new StringCheck(actual).is(expected);
+    }
+    
+    @Test
+    public void notParsedJsonIsComparedAsIs() {
+        assertFail(() -> new StringCheck("{a = b}").is("{a = c}"), "{a = b}", "{a = c}");
+    }
+    
+    private String largeJson(String lastName) {
+        StringBuilder json = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < 10_000; i++) {
+            String name = i == 9999 ? lastName : "item";
+            json.append(i == 0 ? "" : ", ").append("{\"id\": ").append(i).append(", \"name\": \"").append(name).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
 
-}
\ No newline at end of file
+}
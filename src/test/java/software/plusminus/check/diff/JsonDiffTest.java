@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.diff;
+
+import org.junit.Test;
+import software.plusminus.check.Checks;
+import software.plusminus.check.exception.JsonDiffFailure;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonDiffTest {
+    
+    @Test
+    public void equalDocuments() {
+        JsonDiff diff = JsonDiff.of("{\"a\":1,\"b\":[1.0,\"x\"]}", "{\"b\":[1.0,\"x\"],\"a\":1}");
+        assertTrue(diff.isEmpty());
+        assertFalse(diff.isTruncated());
+    }
+    
+    @Test
+    public void allKindsOfDifferences() {
+        JsonDiff diff = JsonDiff.of("{\"a\":1,\"b\":{\"c\":\"x\"},\"d\":[1,2],\"e\":true}",
+                "{\"a\":2,\"b\":[\"x\"],\"d\":[1],\"f\":null}");
+        assertEquals("json differs:\n"
+                + "  replace /a: 1 -> 2\n"
+                + "  replace /b (object -> array): {\"c\":\"x\"} -> [\"x\"]\n"
+                + "  remove /d/1: 2\n"
+                + "  remove /e: true\n"
+                + "  add /f: null", diff.toString());
+        List<String> ops = diff.getOperations().stream()
+                .map(JsonDiffOperation::getOp)
+                .collect(Collectors.toList());
+        assertEquals(List.of("replace", "replace", "remove", "remove", "add"), ops);
+    }
+    
+    @Test
+    public void pathsAreEscaped() {
+        JsonDiff diff = JsonDiff.of("{\"a/b\":{\"c~d\":1}}", "{\"a/b\":{\"c~d\":2}}");
+        assertEquals("/a~1b/c~0d", diff.getOperations().get(0).getPath());
+    }
+    
+    @Test
+    public void numberFormatsAreSignificant() {
+        assertEquals("replace /a: 1.0 -> 1.00",
+                JsonDiff.of("{\"a\":1.0}", "{\"a\":1.00}").getOperations().get(0).toString());
+        assertEquals(JsonDiffOperation.Kind.CHANGED,
+                JsonDiff.of("{\"a\":1}", "{\"a\":1.0}").getOperations().get(0).getKind());
+    }
+    
+    @Test
+    public void differencesAreBounded() {
+        String expected = IntStream.range(0, 1000).mapToObj(i -> "0")
+                .collect(Collectors.joining(",", "[", "]"));
+        String actual = IntStream.range(0, 1000).mapToObj(i -> "1")
+                .collect(Collectors.joining(",", "[", "]"));
+        JsonDiff diff = JsonDiff.of(expected, actual, 3);
+        assertEquals(3, diff.getOperations().size());
+        assertTrue(diff.isTruncated());
+        assertTrue(diff.toString().endsWith("replace /2: 0 -> 1\n  ..."));
+    }
+    
+    @Test
+    public void checkFailureListsDifferences() {
+        try {
+            Checks.check("{\"a\":{\"b\":1}}").is("{\"a\":{\"b\":2}}");
+        } catch (JsonDiffFailure e) {
+            assertEquals("json differs:\n  replace /a/b: 2 -> 1", e.getMessage());
+            assertEquals("{\n  \"a\": {\n    \"b\": 2\n  }\n}", e.getExpected());
+            assertEquals("{\n  \"a\": {\n    \"b\": 1\n  }\n}", e.getActual());
+            return;
+        }
+        fail("Expected the failure");
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.diff;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ListDiffTest {
+    
+    @Test
+    public void equalLists() {
+        assertTrue(ListDiff.of(new int[] {1, 2, 3}, new int[] {1, 2, 3}, 10).isEmpty());
+    }
+    
+    @Test
+    public void insertionsAndRemovals() {
+        ListDiff diff = ListDiff.of(new int[] {1, 2, 3, 4, 5}, new int[] {0, 1, 2, 4, 5, 6, 7}, 10);
+        assertEquals("list differs:\n  inserted at 0\n  removed at 2\n  inserted at 5 (2 elements)", 
+                diff.toString());
+    }
+    
+    @Test
+    public void replacedElementIsChanged() {
+        ListDiff diff = ListDiff.of(new int[] {1, 2, 3, 4}, new int[] {1, 9, 8, 4}, 10);
+        assertEquals("list differs:\n  changed at 1 (2 elements)", diff.toString());
+    }
+    
+    @Test
+    public void fewDifferencesInLongLists() {
+        int[] expected = IntStream.range(0, 1_000_000).toArray();
+        int[] actual = IntStream.range(0, 1_000_000)
+                .filter(i -> i != 77812)
+                .flatMap(i -> i == 1042 ? IntStream.of(-1, i) : IntStream.of(i))
+                .toArray();
+        
+        ListDiff diff = ListDiff.of(expected, actual, 100);
+        
+        assertEquals("list differs:\n  inserted at 1042\n  removed at 77812", diff.toString());
+    }
+    
+    @Test
+    public void limitIsRespected() {
+        int[] expected = IntStream.range(0, 1000).toArray();
+        int[] actual = IntStream.range(1000, 2000).toArray();
+        assertNull(ListDiff.of(expected, actual, 100));
+    }
+    
+    @Test
+    public void limitAppliesToWholeScript() {
+        int[] expected = IntStream.range(0, 100).toArray();
+        int[] actual = IntStream.range(0, 100)
+                .filter(i -> i != 10 && i != 50 && i != 90)
+                .flatMap(i -> i == 30 || i == 70 || i == 95 ? IntStream.of(-i, i) : IntStream.of(i))
+                .toArray();
+        assertEquals(6, edits(ListDiff.of(expected, actual, 6)));
+        assertNull(ListDiff.of(expected, actual, 5));
+    }
+    
+    @Test
+    public void scatteredDifferences() {
+        int[] expected = IntStream.range(0, 1_000_000).toArray();
+        int[] actual = IntStream.range(0, 1_000_000).map(i -> i % 20_000 == 1 ? -i : i).toArray();
+        assertEquals(50, ListDiff.of(expected, actual, 200).getOperations().size());
+        
+        int[] tooDifferent = IntStream.range(0, 1_000_000).map(i -> i % 2_000 == 1 ? -i : i).toArray();
+        assertNull(ListDiff.of(expected, tooDifferent, 200));
+    }
+    
+    @Test
+    public void scriptTransformsExpectedIntoActual() {
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 200; attempt++) {
+            int[] expected = random.ints(random.nextInt(30), 0, 5).toArray();
+            int[] actual = random.ints(random.nextInt(30), 0, 5).toArray();
+            ListDiff diff = ListDiff.of(expected, actual, 100);
+            assertEquals(lcsEdits(expected, actual), edits(diff));
+            assertArrayEquals(actual, apply(expected, actual, diff));
+        }
+    }
+    
+    private static int edits(ListDiff diff) {
+        return diff.getOperations().stream()
+                .mapToInt(o -> o.getKind() == ListDiffOperation.Kind.CHANGED ? 2 * o.getCount() : o.getCount())
+                .sum();
+    }
+    
+    private static int lcsEdits(int[] a, int[] b) {
+        int[][] lcs = new int[a.length + 1][b.length + 1];
+        for (int i = a.length - 1; i >= 0; i--) {
+            for (int j = b.length - 1; j >= 0; j--) {
+                lcs[i][j] = a[i] == b[j] ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        return a.length + b.length - 2 * lcs[0][0];
+    }
+    
+    private static int[] apply(int[] expected, int[] actual, ListDiff diff) {
+        IntStream.Builder result = IntStream.builder();
+        int copied = 0;
+        for (ListDiffOperation operation : diff.getOperations()) {
+            for (; copied < operation.getExpectedIndex(); copied++) {
+                result.add(expected[copied]);
+            }
+            if (operation.getKind() != ListDiffOperation.Kind.REMOVED) {
+                for (int i = 0; i < operation.getCount(); i++) {
+                    result.add(actual[operation.getActualIndex() + i]);
+                }
+            }
+            if (operation.getKind() != ListDiffOperation.Kind.INSERTED) {
+                copied += operation.getCount();
+            }
+        }
+        for (; copied < expected.length; copied++) {
+            result.add(expected[copied]);
+        }
+        return result.build().toArray();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.json;
+
+import org.junit.Test;
+import software.plusminus.check.exception.JsonException;
+
+import static org.junit.Assert.assertEquals;
+
+public class JacksonJsonEngineTest {
+    
+    private static final String[] JSONS = {
+        "{\"a\":1,\"b\":[1,2,{\"c\":\"d\"}],\"e\":{},\"f\":[],\"g\":true}",
+        "[{\"a\":1.50},{\"b\":1e3,\"c\":-0}]",
+        "{\"name\":\"value with \\\"quotes\\\" and \\n line break\",\"nested\":{\"x\":null,\"y\":false}}",
+        "{'single':'quotes', unquoted: 1}",
+        "{\"html\":\"<a href='x'>&amp;=</a>\",\"<key>\":\"\\u0001\\u001f\\t\\u2028\u00e4\"}",
+        "[1,2,3]",
+        "plain string"
+    };
+    
+    private JacksonJsonEngine jackson = new JacksonJsonEngine();
+    private GsonJsonEngine gson = new GsonJsonEngine(jackson);
+    
+    @Test
+    public void prettyIsSameAsGson() {
+        for (String json : JSONS) {
+            assertEquals(gson.pretty(json), jackson.pretty(json));
+        }
+    }
+    
+    @Test
+    public void prettyOrderedIsSameAsGson() {
+        String base = "{\"g\":1,\"b\":2,\"nested\":{\"y\":1,\"x\":2},\"a\":{\"z\":1}}";
+        for (String json : JSONS) {
+            assertEquals(gson.prettyOrdered(json, base), jackson.prettyOrdered(json, base));
+        }
+    }
+    
+    @Test
+    public void prettyEscapesHtmlAsGson() {
+        assertEquals("{\n  \"a\": \"\\u003cb\\u003e \\u0026 \\u003d \\u0027 \\u001f\"\n}", 
+                jackson.pretty("{\"a\":\"<b> & = ' \\u001F\"}"));
+    }
+    
+    /* the lenient Gson parser also accepted unquoted string values and '=' separators */
+    @Test(expected = JsonException.class)
+    public void prettyAcceptsOnlyJson() {
+        jackson.pretty("{a = b}");
+    }
+    
+    @Test
+    public void prettyKeepsNumbersText() {
+        assertEquals("{\n  \"a\": 1.50,\n  \"b\": 1e3\n}", jackson.pretty("{\"a\":1.50,\"b\":1e3}"));
+    }
+    
+    @Test
+    public void prettyOrderedOrdersNestedObjects() {
+        assertEquals("{\n  \"b\": {\n    \"d\": 2,\n    \"c\": 1\n  },\n  \"a\": 0\n}",
+                jackson.prettyOrdered("{\"a\":0,\"b\":{\"c\":1,\"d\":2}}", "{\"b\":{\"d\":0,\"c\":0},\"a\":0}"));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+import lombok.Value;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.plusminus.check.Checks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CheckMetricsTest {
+    
+    private CheckMetrics metrics = new CheckMetrics();
+    
+    @Before
+    public void before() {
+        Instrumentation.addListener(metrics);
+    }
+    
+    @After
+    public void after() {
+        Instrumentation.removeListener(metrics);
+    }
+    
+    @Test
+    public void phasesAreTimedPerCallSite() {
+        Checks.check(Collections.singletonList(new Item("a"))).is(new Item("a"));
+        
+        List<CheckMetrics.SiteMetrics> sites = metrics.slowestSites(10);
+        assertEquals(1, sites.size());
+        CheckMetrics.SiteMetrics site = sites.get(0);
+        assertTrue(site.getSite(), site.getSite().contains("CheckMetricsTest.phasesAreTimedPerCallSite"));
+        assertEquals("CollectionCheck", site.getChecker());
+        assertTrue(site.getPhaseNanos().containsKey(CheckPhase.SERIALIZE));
+        assertEquals(2 * "{\"name\":\"a\"}".length(), metrics.getSerializedChars());
+    }
+    
+    @Test
+    public void failureRenderingIsTimed() {
+        try {
+            Checks.check("{\"a\":1}").isJson().is("{\"a\":2}");
+        } catch (AssertionError e) {
+            // expected
+        }
+        
+        assertTrue(metrics.getNanos(CheckPhase.COMPARE) > 0);
+        assertTrue(metrics.getNanos(CheckPhase.RENDER_FAILURE) > 0);
+        assertTrue(metrics.report(5).contains("CheckMetricsTest.failureRenderingIsTimed"));
+    }
+    
+    @Test
+    public void streamedComparisonCountsCharsOfBothSources() {
+        byte[] actual = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+        Checks.checkJson(new ByteArrayInputStream(actual)).is("{\"a\":1}");
+        
+        assertEquals(14, metrics.slowestSites(1).get(0).getChars());
+    }
+    
+    @Test
+    public void nestedPhasesAreNotCountedTwice() throws InterruptedException {
+        long before = System.nanoTime();
+        long render = Instrumentation.start();
+        long pretty = Instrumentation.start();
+        Thread.sleep(50);
+        Instrumentation.end(CheckPhase.PRETTY, pretty, 0);
+        Instrumentation.end(CheckPhase.RENDER_FAILURE, render, 0);
+        long elapsed = System.nanoTime() - before;
+        
+        assertTrue(metrics.getNanos(CheckPhase.PRETTY) >= 50_000_000L);
+        assertTrue(metrics.getNanos(CheckPhase.RENDER_FAILURE) < 50_000_000L);
+        assertTrue(metrics.slowestSites(10).stream().mapToLong(CheckMetrics.SiteMetrics::getNanos).sum() <= elapsed);
+    }
+    
+    @Test
+    public void nothingIsTimedWithoutListeners() {
+        Instrumentation.removeListener(metrics);
+        assertFalse(Instrumentation.isActive());
+        
+        Checks.check(Collections.singletonList(new Item("a"))).is(new Item("a"));
+        
+        assertTrue(metrics.slowestSites(10).isEmpty());
+    }
+    
+    @Value
+    private static class Item {
+        String name;
+    }
+}
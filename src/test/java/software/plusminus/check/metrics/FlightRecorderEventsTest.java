@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.plusminus.check.Checks;
+import software.plusminus.check.util.FixtureCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FlightRecorderEventsTest {
+    
+    private Recording recording = new Recording();
+    
+    @Before
+    public void before() {
+        recording.enable(CheckEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(JsonSerializeEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(FixtureLoadEvent.class).withThreshold(Duration.ZERO);
+        recording.start();
+    }
+    
+    @After
+    public void after() {
+        recording.close();
+    }
+    
+    @Test
+    public void failedCheck() throws IOException {
+        try {
+            Checks.check("{\"a\":1}").isJson().is("{\"a\":2}");
+            fail();
+        } catch (AssertionError e) {
+            // expected
+        }
+        
+        List<RecordedEvent> events = events(CheckEvent.class);
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("software.plusminus.check.JsonCheck", event.getClass("checker").getName());
+        assertEquals(CheckEvent.FAILED, event.getString("outcome"));
+        assertEquals(7, event.getLong("expectedChars"));
+        assertEquals(7, event.getLong("actualChars"));
+    }
+    
+    @Test
+    public void eventsAreNotCreatedWhileDisabled() {
+        assertNotNull(CheckEvent.beginIfEnabled());
+        recording.close();
+        assertNull(CheckEvent.beginIfEnabled());
+        assertNull(JsonSerializeEvent.beginIfEnabled());
+        assertNull(FixtureLoadEvent.beginIfEnabled());
+    }
+    
+    @Test
+    public void serializationWithCycle() throws IOException {
+        try {
+            Checks.check(cycle()).is("{}");
+            fail();
+        } catch (AssertionError e) {
+            // expected
+        }
+        
+        List<RecordedEvent> events = events(JsonSerializeEvent.class);
+        assertTrue(events.size() > 0);
+        RecordedEvent event = events.get(0);
+        assertEquals(JsonSerializeEvent.SERIALIZE, event.getString("operation"));
+        assertEquals(Node.class.getName(), event.getClass("type").getName());
+        assertEquals(JsonSerializeEvent.JSOG_FALLBACK, event.getString("cycles"));
+        assertEquals("software.plusminus.check.ObjectCheck", event.getClass("checker").getName());
+        assertTrue(event.getLong("chars") > 0);
+    }
+    
+    @Test
+    public void fixtureLoad() throws IOException {
+        FixtureCache.clear();
+        
+        FixtureCache.resolve("fixture.json");
+        
+        List<RecordedEvent> events = events(FixtureLoadEvent.class);
+        assertEquals(1, events.size());
+        assertEquals("fixture.json", events.get(0).getString("path"));
+        assertEquals(FixtureLoadEvent.RESOURCE, events.get(0).getString("source"));
+    }
+    
+    private List<RecordedEvent> events(Class<? extends jdk.jfr.Event> type) throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("checks", ".jfr");
+        try {
+            recording.dump(file);
+            String name = jdk.jfr.EventType.getEventType(type).getName();
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(name))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    private Node cycle() {
+        Node parent = new Node();
+        Node child = new Node();
+        parent.children.add(child);
+        child.parent = parent;
+        return parent;
+    }
+    
+    @Getter
+    @Setter
+    private static class Node {
+        private Node parent;
+        private List<Node> children = new ArrayList<>();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CycleAwareSerializerTest {
+    
+    @Test
+    public void acyclicGraphIsSerializedAsJson() {
+        Node root = node("root");
+        Node shared = node("shared");
+        root.children.add(shared);
+        root.children.add(shared);
+        root.parent = shared;
+        assertEquals(JsonUtils.toJson(root), JsonUtils.toCycleAwareJson(root));
+        assertEquals(JsonUtils.toJson(Arrays.asList(root, shared)), 
+                JsonUtils.toCycleAwareJson(Arrays.asList(root, shared)));
+    }
+    
+    @Test
+    public void unwrappedAndPolymorphicBeans() {
+        Wrapper wrapper = new Wrapper();
+        wrapper.node = node("unwrapped");
+        wrapper.typed = node("typed");
+        assertEquals(JsonUtils.toJson(wrapper), JsonUtils.toCycleAwareJson(wrapper));
+    }
+    
+    @Test
+    public void circularGraphIsSerializedAsJsog() {
+        Node root = node("root");
+        Node child = node("child");
+        child.parent = root;
+        root.children.add(child);
+        assertEquals("{\"@id\":\"1\",\"name\":\"root\",\"children\":[{\"@id\":\"2\",\"name\":\"child\","
+                + "\"children\":[],\"parent\":{\"@ref\":\"1\"}}]}", JsonUtils.toCycleAwareJson(root));
+        assertEquals(JsonUtils.toJsog(root), JsonUtils.toCycleAwareJson(root));
+    }
+    
+    @Test
+    public void jsonArrayOfCircularElementsNumbersIdsAcrossList() {
+        Node first = node("first");
+        first.children.add(first);
+        Node second = node("second");
+        second.parent = second;
+        List<Node> nodes = Arrays.asList(first, second);
+        SerializedForms forms = new SerializedForms();
+        forms.toJson(first);
+        assertEquals(CheckUtils.toJson(nodes), forms.toJsonArray(nodes));
+        assertEquals(CheckUtils.toJson(Arrays.asList(node("a"), node("b"))),
+                forms.toJsonArray(Arrays.asList(node("a"), node("b"))));
+    }
+    
+    @Test
+    public void severalReferencedBeans() {
+        Node root = node("root");
+        Node child = node("child");
+        Node grandChild = node("grandChild");
+        root.children.add(child);
+        child.children.add(grandChild);
+        grandChild.parent = child;
+        child.parent = root;
+        assertEquals(JsonUtils.toJsog(root), JsonUtils.toCycleAwareJson(root));
+    }
+    
+    @Test
+    public void selfReferenceInList() {
+        Node root = node("root");
+        root.children.add(root);
+        assertEquals(JsonUtils.toJsog(Arrays.asList(root)), JsonUtils.toCycleAwareJson(Arrays.asList(root)));
+    }
+    
+    private Node node(String name) {
+        Node node = new Node();
+        node.name = name;
+        return node;
+    }
+    
+    @Getter
+    @Setter
+    private static class Node {
+        private String name;
+        private List<Node> children = new ArrayList<>();
+        private Node parent;
+    }
+    
+    @Getter
+    @Setter
+    private static class Wrapper {
+        @JsonUnwrapped
+        private Node node;
+        @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
+        private Object typed;
+    }
+}
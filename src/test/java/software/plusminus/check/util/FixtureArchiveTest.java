@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FixtureArchiveTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void packedFixturesAreRead() throws IOException {
+        Path resources = folder.newFolder("resources").toPath();
+        write(resources.resolve("a.json"), "{\"a\": \"\u00e4\"}");
+        write(resources.resolve("nested/b.json"), "[1, 2]");
+        write(resources.resolve("c.txt"), "text");
+        Path archive = folder.getRoot().toPath().resolve("fixtures.idx");
+        
+        FixtureArchive.write(resources, "**.json", archive);
+        
+        FixtureArchive mapped = FixtureArchive.open(archive);
+        assertEquals(2, mapped.size());
+        assertEquals("{\"a\": \"\u00e4\"}", mapped.get("a.json"));
+        assertEquals("[1, 2]", mapped.get("nested/b.json"));
+        assertNull(mapped.get("c.txt"));
+        try (InputStream stream = Files.newInputStream(archive)) {
+            assertEquals("[1, 2]", FixtureArchive.read(stream).get("nested/b.json"));
+        }
+    }
+    
+    @Test
+    public void allFilesArePackedWithoutPattern() throws IOException {
+        Path resources = folder.newFolder("resources").toPath();
+        write(resources.resolve("a.json"), "{}");
+        write(resources.resolve("c.txt"), "text");
+        Path archive = resources.resolve("META-INF/fixtures.idx");
+        
+        FixtureArchive.main(new String[] {resources.toString(), archive.toString()});
+        
+        FixtureArchive read = FixtureArchive.open(archive);
+        assertEquals(2, read.size());
+        assertEquals("text", read.get("c.txt"));
+    }
+    
+    @Test
+    public void staleEntriesAreSkipped() throws IOException {
+        Path resources = folder.newFolder("resources").toPath();
+        write(resources.resolve("a.json"), "{\"a\": 1}");
+        write(resources.resolve("b.json"), "{\"b\": 1}");
+        write(resources.resolve("c.json"), "{\"c\": 1}");
+        Path archive = folder.getRoot().toPath().resolve("fixtures.idx");
+        FixtureArchive.write(resources, null, archive);
+        
+        write(resources.resolve("a.json"), "{\"a\": 2}");
+        Files.setLastModifiedTime(resources.resolve("a.json"), FileTime.fromMillis(0));
+        Files.delete(resources.resolve("b.json"));
+        
+        FixtureArchive read = FixtureArchive.open(archive);
+        assertFalse(read.contains("a.json"));
+        assertNull(read.get("a.json"));
+        assertFalse(read.contains("b.json"));
+        assertNull(read.get("b.json"));
+        assertTrue(read.contains("c.json"));
+        assertEquals("{\"c\": 1}", read.get("c.json"));
+    }
+    
+    @Test
+    public void entriesAreTrustedWithoutPackedDirectory() throws IOException {
+        Path resources = folder.newFolder("resources").toPath();
+        write(resources.resolve("a.json"), "{}");
+        Path archive = folder.getRoot().toPath().resolve("fixtures.idx");
+        FixtureArchive.write(resources, null, archive);
+        
+        Files.delete(resources.resolve("a.json"));
+        Files.delete(resources);
+        
+        assertEquals("{}", FixtureArchive.open(archive).get("a.json"));
+    }
+    
+    @Test(expected = IOException.class)
+    public void notAnArchive() throws IOException {
+        Path file = folder.newFile().toPath();
+        write(file, "{}");
+        FixtureArchive.open(file);
+    }
+    
+    private static void write(Path file, String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FixtureCacheTest {
+    
+    @Before
+    public void before() {
+        FixtureCache.clear();
+    }
+    
+    @After
+    public void after() {
+        FixtureCache.setMaxBytes(64L * 1024 * 1024);
+        FixtureCache.clear();
+    }
+    
+    @Test
+    public void fixtureIsLoadedOnce() {
+        FixtureCache.Fixture fixture = FixtureCache.get("fixture.json");
+        assertEquals("{\n  \"name\": \"fixture\"\n}", fixture.getText());
+        assertSame(fixture, FixtureCache.get("fixture.json"));
+        assertSame(fixture.getTree(), FixtureCache.get("fixture.json").getTree());
+        assertEquals("fixture", fixture.getTree().get("name").asText());
+        assertEquals(1, FixtureCache.getMisses());
+        assertEquals(2, FixtureCache.getHits());
+    }
+    
+    @Test
+    public void notResourceIsNeitherCachedNorCounted() {
+        assertEquals("not a resource", FixtureCache.resolve("not a resource"));
+        assertNull(FixtureCache.get("not a resource"));
+        assertEquals(0, FixtureCache.getMisses());
+        assertEquals(0, FixtureCache.getHits());
+        assertEquals(0, FixtureCache.size());
+    }
+    
+    @Test
+    public void inlineJsonIsNotLookedUp() {
+        assertEquals("{\"a\":1}", FixtureCache.resolve("{\"a\":1}"));
+        assertEquals(0, FixtureCache.getMisses());
+        assertEquals(0, FixtureCache.size());
+    }
+    
+    @Test
+    public void leastRecentlyUsedFixtureIsEvicted() {
+        FixtureCache.get("fixture.json");
+        FixtureCache.get("one.txt");
+        FixtureCache.get("fixture.json");
+        FixtureCache.setMaxBytes(FixtureCache.getBytes() - 1);
+        assertEquals(1, FixtureCache.size());
+        FixtureCache.get("fixture.json");
+        assertEquals(2, FixtureCache.getMisses());
+        assertEquals(2, FixtureCache.getHits());
+    }
+}
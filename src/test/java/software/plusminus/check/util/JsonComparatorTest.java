@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JsonComparatorTest {
+    
+    @Test
+    public void equalWithDifferentLayout() {
+        Optional<JsonMismatch> mismatch = JsonComparator.compare(
+                "{\n  \"a\": [1, 2],\n  \"b\": {},\n  \"c\": \"\\u0041\"\n}",
+                "{\"a\":[1,2],\"b\":{},\"c\":\"A\"}");
+        assertFalse(mismatch.isPresent());
+    }
+    
+    @Test
+    public void differentValue() {
+        JsonMismatch mismatch = JsonComparator.compare(
+                "{\"items\":[{\"quantity\":1},{\"quantity\":2}]}",
+                "{\"items\":[{\"quantity\":1},{\"quantity\":3}]}").get();
+        assertEquals(new JsonMismatch("/items/1/quantity", "2", "3"), mismatch);
+    }
+    
+    @Test
+    public void differentFieldName() {
+        JsonMismatch mismatch = JsonComparator.compare("{\"a\":1,\"b\":2}", "{\"a\":1,\"c\":2}").get();
+        assertEquals(new JsonMismatch("/b", "field \"b\"", "field \"c\""), mismatch);
+    }
+    
+    @Test
+    public void extraElement() {
+        JsonMismatch mismatch = JsonComparator.compare("[1,2]", "[1,2,{}]").get();
+        assertEquals(new JsonMismatch("/2", "end of array", "{...}"), mismatch);
+    }
+    
+    @Test
+    public void numberFormatIsSignificant() {
+        assertTrue(JsonComparator.compare("{\"a\":1.0}", "{\"a\":1}").isPresent());
+    }
+    
+    @Test
+    public void regionOfLargeDocument() {
+        String expected = largeArray(-1, true);
+        String actual = largeArray(5000, true);
+        JsonMismatch mismatch = JsonComparator.compare(expected, actual).get();
+        
+        String region = JsonComparator.actualRegion(actual, mismatch);
+        
+        assertEquals("/5000/value", mismatch.getPath());
+        assertEquals("at /5000/value: -1\n"
+                + "{\n"
+                + "  \"id\": 5000,\n"
+                + "  \"value\": -1\n"
+                + "}", region);
+    }
+    
+    @Test
+    public void regionOfLargeArray() {
+        String expected = largeArray(-1, false);
+        String actual = largeArray(5000, false);
+        JsonMismatch mismatch = JsonComparator.compare(expected, actual).get();
+        
+        String region = JsonComparator.expectedRegion(expected, mismatch);
+        
+        assertEquals("/5000", mismatch.getPath());
+        assertTrue(region, region.startsWith("at /5000: 5000 (showing elements from 4998)\n"
+                + "[\n"
+                + "  4998,\n"
+                + "  4999,\n"
+                + "  5000,\n"));
+        assertTrue(region.length() < 20_000);
+    }
+    
+    private String largeArray(int changedIndex, boolean objects) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10_000; i++) {
+            int value = i == changedIndex ? -1 : i;
+            json.append(i == 0 ? "" : ",");
+            if (objects) {
+                json.append("{\"id\":").append(i).append(",\"value\":").append(value).append('}');
+            } else {
+                json.append(value);
+            }
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import lombok.Data;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ObjectComparatorTest {
+    
+    @Test
+    public void equalBeans() {
+        assertTrue(ObjectComparator.equal(bean("one"), bean("one")));
+    }
+    
+    @Test
+    public void differentPrimitiveField() {
+        Bean actual = bean("one");
+        actual.number = 2;
+        assertFalse(ObjectComparator.equal(bean("one"), actual));
+    }
+    
+    @Test
+    public void differentNestedField() {
+        Bean actual = bean("one");
+        actual.children.get(0).name = "changed";
+        assertFalse(ObjectComparator.equal(bean("one"), actual));
+    }
+    
+    @Test
+    public void differentMapOrder() {
+        Bean actual = bean("one");
+        actual.attributes.remove("a");
+        actual.attributes.put("a", "1");
+        assertFalse(ObjectComparator.equal(bean("one"), actual));
+    }
+    
+    @Test
+    public void negativeZeroIsDifferent() {
+        Bean actual = bean("one");
+        actual.ratio = -0.0;
+        assertFalse(ObjectComparator.equal(bean("one"), actual));
+    }
+    
+    @Test
+    public void inheritedFields() {
+        ChildBean expected = new ChildBean();
+        expected.name = "one";
+        expected.extra = "extra";
+        ChildBean actual = new ChildBean();
+        actual.name = "two";
+        actual.extra = "extra";
+        assertFalse(ObjectComparator.equal(expected, actual));
+        actual.name = "one";
+        assertTrue(ObjectComparator.equal(expected, actual));
+    }
+    
+    @Test
+    public void circularReferences() {
+        assertTrue(ObjectComparator.equal(cycle(), cycle()));
+    }
+    
+    @Test
+    public void differentCircularReferences() {
+        Bean expected = cycle();
+        Bean actual = cycle();
+        actual.children.get(0).children.set(0, actual.children.get(0));
+        assertFalse(ObjectComparator.equal(expected, actual));
+    }
+    
+    @Test
+    public void jdkClassesWithPrivateStateAreNotCompared() {
+        assertFalse(ObjectComparator.equal(new StringBuilder("a"), new StringBuilder("a")));
+    }
+    
+    private Bean bean(String name) {
+        Bean bean = new Bean();
+        bean.name = name;
+        bean.number = 1;
+        bean.ratio = 0.0;
+        bean.price = new BigDecimal("1.50");
+        bean.date = LocalDate.of(2021, 3, 1);
+        bean.tags = new String[] {"x", "y"};
+        bean.attributes.put("a", "1");
+        bean.attributes.put("b", "2");
+        Bean child = new Bean();
+        child.name = name + "-child";
+        bean.children.add(child);
+        return bean;
+    }
+    
+    private Bean cycle() {
+        Bean root = bean("root");
+        root.children.get(0).children.add(root);
+        return root;
+    }
+    
+    @Data
+    private static class Bean {
+        private String name;
+        private int number;
+        private double ratio;
+        private BigDecimal price;
+        private LocalDate date;
+        private String[] tags;
+        private Map<String, String> attributes = new LinkedHashMap<>();
+        private List<Bean> children = new ArrayList<>();
+    }
+    
+    @Data
+    private static class ParentBean {
+        protected String name;
+    }
+    
+    @Data
+    private static class ChildBean extends ParentBean {
+        private String extra;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.plusminus.check.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UnorderedArraysTest {
+    
+    @Test
+    public void hashDoesNotDependOnFieldsOrder() {
+        assertEquals(UnorderedArrays.hash(tree("{\"a\":1,\"b\":[1,2]}"), false),
+                UnorderedArrays.hash(tree("{\"b\":[1,2],\"a\":1}"), false));
+    }
+    
+    @Test
+    public void hashOfOrderedArrayDependsOnOrder() {
+        assertNotEquals(UnorderedArrays.hash(tree("[1,2]"), false), UnorderedArrays.hash(tree("[2,1]"), false));
+        assertEquals(UnorderedArrays.hash(tree("[1,2]"), true), UnorderedArrays.hash(tree("[2,1]"), true));
+    }
+    
+    @Test
+    public void hashDependsOnTypes() {
+        assertNotEquals(UnorderedArrays.hash(tree("[1]"), true), UnorderedArrays.hash(tree("[\"1\"]"), true));
+        assertNotEquals(UnorderedArrays.hash(tree("[1]"), true), UnorderedArrays.hash(tree("[1.0]"), true));
+    }
+    
+    @Test
+    public void reorderMatchesDuplicatesAsMultiset() {
+        JsonNode expected = tree("[1,2,1,3]");
+        JsonNode actual = tree("[3,1,1,2]");
+        assertTrue(UnorderedArrays.reorder(expected, actual).isEmpty());
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void nestedArraysOfChosenArrayKeepOrder() {
+        JsonNode actual = tree("{\"a\":[{\"x\":[2,1]},1,1]}");
+        List<UnorderedArrays.Mismatch> mismatches = UnorderedArrays.reorder(
+                tree("{\"a\":[1,{\"x\":[1,2]},2]}"), actual, Collections.singleton("/a"));
+        assertEquals(1, mismatches.size());
+        assertEquals("/a", mismatches.get(0).getPath());
+        assertEquals(Arrays.asList(tree("{\"x\":[1,2]}"), tree("2")), mismatches.get(0).getExpected());
+        assertEquals(Arrays.asList(tree("{\"x\":[2,1]}"), tree("1")), mismatches.get(0).getActual());
+        assertEquals(tree("[1,{\"x\":[2,1]},1]"), actual.get("a"));
+    }
+    
+    @Test
+    public void deeplyNestedUnorderedArrays() {
+        StringBuilder expected = new StringBuilder("0");
+        StringBuilder actual = new StringBuilder("0");
+        for (int depth = 1; depth <= 200; depth++) {
+            expected.insert(0, "[" + depth + ",{\"a\":").append("}]");
+            actual.insert(0, "[{\"a\":").append("}," + depth + "]");
+        }
+        JsonNode expectedTree = tree(expected.toString());
+        JsonNode actualTree = tree(actual.toString());
+        assertTrue(UnorderedArrays.reorder(expectedTree, actualTree).isEmpty());
+        assertEquals(expectedTree, actualTree);
+    }
+    
+    private JsonNode tree(String json) {
+        return JsonUtils.toTree(json);
+    }
+}